@@ -0,0 +1,101 @@
+package com.cps510.benchmark;
+
+import com.cps510.Cps510Application;
+import com.cps510.service.DataSeedService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Seeded embedded database for benchmarks:
+ * - Boots the application context (no web server) with the "embedded" profile against a
+ *   fresh in-memory H2 database in Oracle mode, one per scale
+ * - The profile creates the schema (Admin > Create Tables) and seeds a data set sized by the
+ *   number of orders with DataSeedService, without the sample data, so IDs start at 1
+ * The same scale always produces the same data, so results are comparable across runs.
+ */
+public final class BenchmarkDatabase {
+
+    private static final int EMPLOYEES = 20;
+
+    private final ConfigurableApplicationContext context;
+    private final int orders;
+    private final int customers;
+    private final int employees;
+    private final int products;
+
+    private BenchmarkDatabase(ConfigurableApplicationContext context, int orders) {
+        this.context = context;
+        this.orders = orders;
+        this.customers = DataSeedService.customersFor(orders);
+        this.employees = EMPLOYEES;
+        this.products = DataSeedService.productsFor(orders);
+    }
+
+    /**
+     * Starts the application against a fresh in-memory database seeded with the given number of orders.
+     * 
+     * @param orders Number of orders to seed (customers, products and lines scale with it)
+     * @return The started, seeded database
+     */
+    public static BenchmarkDatabase start(int orders) throws SQLException {
+        String url = "jdbc:h2:mem:cps510_bench_" + orders + ";MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH";
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Cps510Application.class)
+            .logStartupInfo(false)
+            .profiles("embedded")
+            .run("--spring.main.web-application-type=none",
+                 "--spring.main.banner-mode=off",
+                 "--logging.level.root=WARN",
+                 "--spring.datasource.url=" + url,
+                 "--app.datasource.warm-up=false",
+                 "--app.dashboard.refresh-interval-ms=3600000",
+                 "--app.embedded.populate=false",
+                 "--app.embedded.seed-orders=" + orders);
+        try (Connection conn = context.getBean(DataSource.class).getConnection();
+             Statement stmt = conn.createStatement()) {
+            // Fresh optimizer statistics for the seeded tables
+            stmt.execute("ANALYZE");
+        }
+        return new BenchmarkDatabase(context, orders);
+    }
+
+    /**
+     * Returns a bean from the application context, e.g. a DAO.
+     */
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int getOrders() {
+        return orders;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getEmployees() {
+        return employees;
+    }
+
+    public int getProducts() {
+        return products;
+    }
+
+    /**
+     * Shuts down the application context and drops the in-memory database.
+     */
+    public void close() {
+        try (Connection conn = context.getBean(DataSource.class).getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            // Database already gone
+        }
+        context.close();
+    }
+}
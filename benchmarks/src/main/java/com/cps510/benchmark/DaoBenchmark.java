@@ -0,0 +1,110 @@
+package com.cps510.benchmark;
+
+import com.cps510.dao.OrderDAO;
+import com.cps510.dao.OrderItemDAO;
+import com.cps510.dao.PaymentDAO;
+import com.cps510.dao.ProductDAO;
+import com.cps510.model.Order;
+import com.cps510.model.OrderItem;
+import com.cps510.model.Page;
+import com.cps510.model.Payment;
+import com.cps510.model.Product;
+import com.cps510.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the DAO hot paths used by the list, search and order entry pages.
+ * Insert benchmarks add rows to the seeded database, so each trial starts from a fresh seed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DaoBenchmark {
+
+    private static final String[] SEARCH_TERMS = {"jeans", "Red", "levis", "Boots", "navy", "Accessories"};
+
+    private OrderDAO orderDAO;
+    private OrderItemDAO orderItemDAO;
+    private PaymentDAO paymentDAO;
+    private ProductDAO productDAO;
+    private OrderService orderService;
+
+    @Setup
+    public void setUp(DatabaseState db) {
+        orderDAO = db.getBean(OrderDAO.class);
+        orderItemDAO = db.getBean(OrderItemDAO.class);
+        paymentDAO = db.getBean(PaymentDAO.class);
+        productDAO = db.getBean(ProductDAO.class);
+        orderService = db.getBean(OrderService.class);
+    }
+
+    @Benchmark
+    public List<Order> orderFindAll() {
+        return orderDAO.findAll();
+    }
+
+    @Benchmark
+    public Page<Order> orderFindFirstPage() {
+        return orderDAO.findPage(null, null, Page.DEFAULT_SIZE);
+    }
+
+    @Benchmark
+    public List<Product> productSearch() {
+        return productDAO.search(SEARCH_TERMS[ThreadLocalRandom.current().nextInt(SEARCH_TERMS.length)]);
+    }
+
+    @Benchmark
+    public List<OrderItem> orderItemFindByOrder(DatabaseState db) {
+        return orderItemDAO.findByOrder(db.randomOrderId());
+    }
+
+    @Benchmark
+    public BigDecimal paymentTotalPaid(DatabaseState db) {
+        return paymentDAO.getTotalPaidAmount(db.randomOrderId());
+    }
+
+    @Benchmark
+    public Long orderInsert(DatabaseState db) {
+        return orderDAO.insert(newOrder(db));
+    }
+
+    @Benchmark
+    public int orderWithItemsInsert(DatabaseState db) {
+        Long orderId = orderDAO.insert(newOrder(db));
+        List<OrderItem> items = new ArrayList<>();
+        long firstProduct = db.randomProductId();
+        for (int line = 0; line < 3; line++) {
+            long productId = 1 + (firstProduct - 1 + line * 7L) % db.getProducts();
+            items.add(new OrderItem(orderId, productId, 1 + line, new BigDecimal("19.99")));
+        }
+        return orderService.addItems(orderId, items);
+    }
+
+    @Benchmark
+    public Long paymentInsert(DatabaseState db) {
+        return paymentDAO.insert(new Payment(null, db.randomOrderId(), "Debit", new BigDecimal("10.00"), "Pending"));
+    }
+
+    private static Order newOrder(DatabaseState db) {
+        return new Order(null, new Date(), new BigDecimal("0.01"), "Pending", db.randomCustomerId(), db.randomEmployeeId());
+    }
+}
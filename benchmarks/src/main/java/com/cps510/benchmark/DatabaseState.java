@@ -0,0 +1,70 @@
+package com.cps510.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * JMH state holding one seeded benchmark database per scale.
+ * The scale is the number of seeded orders; select it with -p orders=1000 (default: all scales).
+ */
+@State(Scope.Benchmark)
+public class DatabaseState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int orders;
+
+    private BenchmarkDatabase database;
+
+    @Setup(Level.Trial)
+    public void start() throws SQLException {
+        database = BenchmarkDatabase.start(orders);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        database.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return database.getBean(type);
+    }
+
+    /**
+     * Random ID of a seeded order.
+     */
+    public long randomOrderId() {
+        return 1 + ThreadLocalRandom.current().nextInt(database.getOrders());
+    }
+
+    /**
+     * Random ID of a seeded customer.
+     */
+    public long randomCustomerId() {
+        return 1 + ThreadLocalRandom.current().nextInt(database.getCustomers());
+    }
+
+    /**
+     * Random ID of a seeded employee.
+     */
+    public long randomEmployeeId() {
+        return 1 + ThreadLocalRandom.current().nextInt(database.getEmployees());
+    }
+
+    /**
+     * Random ID of a seeded product.
+     */
+    public long randomProductId() {
+        return 1 + ThreadLocalRandom.current().nextInt(database.getProducts());
+    }
+
+    public int getProducts() {
+        return database.getProducts();
+    }
+}
@@ -0,0 +1,76 @@
+package com.cps510.benchmark.load;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Request mix of a cashier at the till: mostly product lookups and order screens,
+ * with the occasional dashboard and payment form. Weights are percentages.
+ */
+enum CashierMix {
+
+    DASHBOARD("/", 10),
+    ORDER_LIST("/orders", 15),
+    ORDER_ITEMS("/orders/{id}/items", 30),
+    PAYMENT_FORM("/payments/new", 15),
+    PRODUCT_SEARCH("/products?search=", 30);
+
+    private static final String[] SEARCH_TERMS = {"jeans", "Red", "levis", "Boots", "navy", "Accessories",
+                                                  "shirt", "Black", "zara", "Sneakers", "grey", "Hoodie"};
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (CashierMix route : values()) {
+            total += route.weight;
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    private final String route;
+    private final int weight;
+
+    CashierMix(String route, int weight) {
+        this.route = route;
+        this.weight = weight;
+    }
+
+    /**
+     * Route template used to group results, e.g. /orders/{id}/items.
+     */
+    String route() {
+        return route;
+    }
+
+    /**
+     * Picks the next route according to the weights.
+     */
+    static CashierMix next(Random random) {
+        int roll = random.nextInt(TOTAL_WEIGHT);
+        for (CashierMix route : values()) {
+            roll -= route.weight;
+            if (roll < 0) {
+                return route;
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    /**
+     * Concrete request path for this route, with a random order ID or search term.
+     * 
+     * @param random Random source of the calling cashier
+     * @param orders Highest order ID to pick from
+     */
+    String path(Random random, int orders) {
+        switch (this) {
+            case ORDER_ITEMS:
+                return "/orders/" + (1 + random.nextInt(orders)) + "/items";
+            case PRODUCT_SEARCH:
+                return route + URLEncoder.encode(SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)], StandardCharsets.UTF_8);
+            default:
+                return route;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.cps510.benchmark.load;
+
+import com.cps510.Cps510Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP load test of the MVC controllers with a cashier request mix (see CashierMix).
+ * - Starts the application in-process with the "embedded" profile on a free port, seeded with
+ *   --orders orders, unless --base-url points at a running instance
+ * - Starts --users virtual cashiers evenly over --ramp-up; each sends one request at a time and
+ *   pauses for a think time around --think-time between requests
+ * - Measures for --duration once all cashiers are running, then reports request count, errors,
+ *   throughput and p50/p95/p99/max latency per route, and writes them as JSON to --out
+ * The request sequence of each cashier is derived from --seed, so runs are reproducible.
+ * 
+ * Example: java -cp benchmarks/target/benchmarks.jar com.cps510.benchmark.load.LoadTest --users=50 --duration=2m
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl;
+        if (baseUrl == null) {
+            System.out.println("Starting application with the embedded profile, seeding " + options.orders + " orders...");
+            context = startApplication(options.orders);
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        }
+        try {
+            List<RouteStats.Summary> results = run(options, baseUrl);
+            print(options, baseUrl, results);
+            write(options, baseUrl, results);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(int orders) {
+        return new SpringApplicationBuilder(Cps510Application.class)
+            .logStartupInfo(false)
+            .profiles("embedded")
+            .run("--server.port=0",
+                 "--spring.main.banner-mode=off",
+                 "--logging.level.root=WARN",
+                 "--spring.thymeleaf.cache=true",
+                 "--app.embedded.populate=false",
+                 "--app.embedded.seed-orders=" + orders);
+    }
+
+    private static List<RouteStats.Summary> run(LoadTestOptions options, String baseUrl) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(options.timeout)
+            .build();
+        Map<CashierMix, RouteStats> stats = new EnumMap<>(CashierMix.class);
+        for (CashierMix route : CashierMix.values()) {
+            stats.put(route, new RouteStats(route.route()));
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.rampUp.toNanos();
+        long measureUntil = measureFrom + options.duration.toNanos();
+        long rampStep = options.users > 1 ? options.rampUp.toNanos() / options.users : 0;
+        System.out.printf(Locale.ROOT, "Running %d cashiers against %s (ramp-up %ds, measured %ds)...%n",
+                          options.users, baseUrl, options.rampUp.getSeconds(), options.duration.getSeconds());
+
+        ExecutorService cashiers = Executors.newFixedThreadPool(options.users);
+        for (int user = 0; user < options.users; user++) {
+            long startAt = start + user * rampStep;
+            Random random = new Random(options.seed + user);
+            cashiers.execute(() -> cashier(client, baseUrl, options, random, stats, startAt, measureFrom, measureUntil));
+        }
+        cashiers.shutdown();
+        long timeoutSeconds = options.rampUp.getSeconds() + options.duration.getSeconds() + options.timeout.getSeconds() + 10;
+        if (!cashiers.awaitTermination(timeoutSeconds, TimeUnit.SECONDS)) {
+            cashiers.shutdownNow();
+        }
+
+        double seconds = options.duration.toNanos() / 1e9;
+        List<RouteStats.Summary> results = new ArrayList<>();
+        RouteStats total = new RouteStats("TOTAL");
+        for (RouteStats route : stats.values()) {
+            results.add(route.summarize(seconds));
+            total.addAll(route);
+        }
+        results.add(total.summarize(seconds));
+        return results;
+    }
+
+    /**
+     * One virtual cashier: waits for its start time, then sends requests until the end of
+     * the measured window. Only requests sent and completed inside the window are recorded.
+     */
+    private static void cashier(HttpClient client, String baseUrl, LoadTestOptions options, Random random,
+                                Map<CashierMix, RouteStats> stats, long startAt, long measureFrom, long measureUntil) {
+        try {
+            sleepNanos(startAt - System.nanoTime());
+            while (System.nanoTime() < measureUntil) {
+                CashierMix route = CashierMix.next(random);
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + route.path(random, options.orders)))
+                    .timeout(options.timeout)
+                    .GET()
+                    .build();
+                long sent = System.nanoTime();
+                boolean error;
+                try {
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    error = response.statusCode() >= 400;
+                } catch (IOException e) {
+                    error = true;
+                }
+                long received = System.nanoTime();
+                if (sent >= measureFrom && received <= measureUntil) {
+                    stats.get(route).record(received - sent, error);
+                }
+                long meanThink = options.thinkTime.toNanos();
+                sleepNanos(meanThink / 2 + (long) (random.nextDouble() * meanThink));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        }
+    }
+
+    private static void print(LoadTestOptions options, String baseUrl, List<RouteStats.Summary> results) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-22s %9s %7s %10s %9s %9s %9s %9s%n",
+                          "Route", "Requests", "Errors", "Req/s", "p50 ms", "p95 ms", "p99 ms", "Max ms");
+        for (RouteStats.Summary result : results) {
+            System.out.printf(Locale.ROOT, "%-22s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                              result.route, result.requests, result.errors, result.throughput,
+                              result.p50, result.p95, result.p99, result.max);
+        }
+        System.out.println();
+        System.out.println("Results written to " + options.out);
+    }
+
+    private static void write(LoadTestOptions options, String baseUrl, List<RouteStats.Summary> results)
+            throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(options.out), StandardCharsets.UTF_8))) {
+            out.printf(Locale.ROOT, "{%n  \"baseUrl\": \"%s\",%n  \"orders\": %d,%n  \"users\": %d,%n" +
+                       "  \"rampUpSeconds\": %d,%n  \"durationSeconds\": %d,%n  \"thinkTimeMs\": %d,%n" +
+                       "  \"seed\": %d,%n  \"routes\": [%n",
+                       baseUrl, options.orders, options.users, options.rampUp.getSeconds(),
+                       options.duration.getSeconds(), options.thinkTime.toMillis(), options.seed);
+            for (int i = 0; i < results.size(); i++) {
+                RouteStats.Summary result = results.get(i);
+                out.printf(Locale.ROOT, "    {\"route\": \"%s\", \"requests\": %d, \"errors\": %d, \"throughput\": %.2f, " +
+                           "\"p50Ms\": %.3f, \"p95Ms\": %.3f, \"p99Ms\": %.3f, \"maxMs\": %.3f}%s%n",
+                           result.route, result.requests, result.errors, result.throughput,
+                           result.p50, result.p95, result.p99, result.max, i < results.size() - 1 ? "," : "");
+            }
+            out.printf("  ]%n}%n");
+        }
+    }
+}
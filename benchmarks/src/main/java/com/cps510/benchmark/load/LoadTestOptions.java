@@ -0,0 +1,89 @@
+package com.cps510.benchmark.load;
+
+import java.time.Duration;
+
+/**
+ * Command line options of the load test, given as --name=value.
+ * Durations accept a number with an ms, s or m suffix (e.g. 500ms, 30s, 2m).
+ */
+final class LoadTestOptions {
+
+    /** Target base URL; when absent the application is started in-process with the embedded profile */
+    String baseUrl;
+    /** Orders seeded into the in-process database, or the highest order ID of the target database */
+    int orders = 10_000;
+    /** Concurrent virtual cashiers */
+    int users = 20;
+    /** Time over which the cashiers are started, one after another; not measured */
+    Duration rampUp = Duration.ofSeconds(10);
+    /** Measured time once all cashiers are running */
+    Duration duration = Duration.ofSeconds(60);
+    /** Mean pause between two requests of one cashier (uniform between half and one and a half times) */
+    Duration thinkTime = Duration.ofMillis(500);
+    /** Per-request timeout */
+    Duration timeout = Duration.ofSeconds(30);
+    /** Random seed of the request sequence */
+    long seed = 42;
+    /** JSON result file */
+    String out = "loadtest-result.json";
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "base-url":
+                    options.baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                    break;
+                case "orders":
+                    options.orders = Integer.parseInt(value);
+                    break;
+                case "users":
+                    options.users = Integer.parseInt(value);
+                    break;
+                case "ramp-up":
+                    options.rampUp = duration(value);
+                    break;
+                case "duration":
+                    options.duration = duration(value);
+                    break;
+                case "think-time":
+                    options.thinkTime = duration(value);
+                    break;
+                case "timeout":
+                    options.timeout = duration(value);
+                    break;
+                case "seed":
+                    options.seed = Long.parseLong(value);
+                    break;
+                case "out":
+                    options.out = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        if (options.users <= 0 || options.orders <= 0) {
+            throw new IllegalArgumentException("--users and --orders must be positive");
+        }
+        return options;
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
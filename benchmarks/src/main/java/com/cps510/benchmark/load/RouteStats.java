@@ -0,0 +1,104 @@
+package com.cps510.benchmark.load;
+
+import java.util.Arrays;
+
+/**
+ * Latencies and errors recorded for one route during the measured window.
+ * Keeps every sample so percentiles are exact; a run of a few million requests
+ * needs a few tens of MB.
+ */
+final class RouteStats {
+
+    private final String route;
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    RouteStats(String route) {
+        this.route = route;
+    }
+
+    String route() {
+        return route;
+    }
+
+    /**
+     * Records one completed request.
+     * 
+     * @param latencyNanos Time from sending the request to receiving the full response
+     * @param error Whether the request failed (I/O error, timeout or HTTP status 400 and above)
+     */
+    synchronized void record(long latencyNanos, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    /**
+     * Adds all samples of another route, e.g. to build the overall total.
+     */
+    synchronized void addAll(RouteStats other) {
+        long[] samples;
+        int otherErrors;
+        synchronized (other) {
+            samples = Arrays.copyOf(other.latencies, other.count);
+            otherErrors = other.errors;
+        }
+        for (long sample : samples) {
+            record(sample, false);
+        }
+        errors += otherErrors;
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(route, count, errors, seconds > 0 ? count / seconds : 0,
+                           percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                           count > 0 ? millis(sorted[count - 1]) : 0);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // Nearest-rank percentile
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return millis(sorted[Math.max(0, rank - 1)]);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Result of one route: request and error counts, throughput in requests per second
+     * and latencies in milliseconds.
+     */
+    static final class Summary {
+        final String route;
+        final int requests;
+        final int errors;
+        final double throughput;
+        final double p50;
+        final double p95;
+        final double p99;
+        final double max;
+
+        Summary(String route, int requests, int errors, double throughput, double p50, double p95, double p99,
+                double max) {
+            this.route = route;
+            this.requests = requests;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+            this.max = max;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.cps510.dao;
+
+import com.cps510.benchmark.DatabaseState;
+import com.cps510.model.Page;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for each DAO RowMapper's mapRow, without query execution.
+ * Each mapper's rows (up to Page.MAX_SIZE, selected with the columns its DAO queries select)
+ * are read once in setup into an in-memory CachedRowSet. Each invocation maps all of them
+ * with a new mapper, as a DAO query does, so the time per invocation is one column
+ * resolution plus the per-row getters and entity construction.
+ * Lives in the DAO package because the mappers are package-private.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class RowMapperBenchmark {
+
+    private static final int ROWS = Page.MAX_SIZE;
+
+    private CachedRowSet categories;
+    private CachedRowSet customers;
+    private CachedRowSet employees;
+    private CachedRowSet products;
+    private CachedRowSet orders;
+    private CachedRowSet ordersWithIds;
+    private CachedRowSet orderItems;
+    private CachedRowSet payments;
+
+    @Setup
+    public void setUp(DatabaseState db) throws SQLException {
+        try (Connection conn = db.getBean(DataSource.class).getConnection()) {
+            categories = cache(conn, "SELECT category_id, category_name FROM Category_ ORDER BY category_name");
+            customers = cache(conn, "SELECT customer_id, customer_name, customer_email, customer_phone " +
+                                    "FROM Customer ORDER BY customer_name, customer_id");
+            employees = cache(conn, "SELECT employee_id, employee_name, employee_email, employee_phone, employee_role " +
+                                    "FROM Employee ORDER BY employee_name");
+            products = cache(conn, "SELECT p.product_id, p.product_name, p.product_size, p.product_colour, p.product_brand, " +
+                                   "p.product_price, p.product_stock_qty, p.category_id, c.category_name " +
+                                   "FROM Product p JOIN Category_ c ON p.category_id = c.category_id " +
+                                   "ORDER BY p.product_name, p.product_id");
+            orders = cache(conn, "SELECT order_id, order_date, order_status, total_amount, customer_name, employee_name " +
+                                 "FROM V_ORDERS_SUMMARY ORDER BY order_date DESC, order_id DESC");
+            ordersWithIds = cache(conn, "SELECT o.order_id, o.order_date, o.total_amount, o.order_status, " +
+                                        "o.customer_id, o.employee_id, c.customer_name, e.employee_name " +
+                                        "FROM Order_ o JOIN Customer c ON o.customer_id = c.customer_id " +
+                                        "JOIN Employee e ON o.employee_id = e.employee_id ORDER BY o.order_date DESC");
+            orderItems = cache(conn, "SELECT * FROM V_ORDER_LINE_ITEMS ORDER BY order_id, product_name");
+            payments = cache(conn, "SELECT payment_id, order_id, payment_method, payment_amount, payment_status, " +
+                                   "order_date, customer_name FROM V_PAYMENTS ORDER BY payment_id DESC");
+        }
+    }
+
+    /** CategoryRowMapper */
+    @Benchmark
+    public void categoryMapper(Blackhole bh) throws SQLException {
+        mapAll(categories, new CategoryDAO.CategoryRowMapper(), bh);
+    }
+
+    /** CustomerRowMapper */
+    @Benchmark
+    public void customerMapper(Blackhole bh) throws SQLException {
+        mapAll(customers, new CustomerDAO.CustomerRowMapper(), bh);
+    }
+
+    /** EmployeeRowMapper */
+    @Benchmark
+    public void employeeMapper(Blackhole bh) throws SQLException {
+        mapAll(employees, new EmployeeDAO.EmployeeRowMapper(), bh);
+    }
+
+    /** ProductRowMapper, with the optional category_name column */
+    @Benchmark
+    public void productMapper(Blackhole bh) throws SQLException {
+        mapAll(products, new ProductDAO.ProductRowMapper(), bh);
+    }
+
+    /** OrderRowMapper over V_ORDERS_SUMMARY, with optional ID columns absent */
+    @Benchmark
+    public void orderMapper(Blackhole bh) throws SQLException {
+        mapAll(orders, new OrderDAO.OrderRowMapper(), bh);
+    }
+
+    /** OrderRowMapperWithIds */
+    @Benchmark
+    public void orderWithIdsMapper(Blackhole bh) throws SQLException {
+        mapAll(ordersWithIds, new OrderDAO.OrderRowMapperWithIds(), bh);
+    }
+
+    /** OrderItemRowMapper over V_ORDER_LINE_ITEMS */
+    @Benchmark
+    public void orderItemMapper(Blackhole bh) throws SQLException {
+        mapAll(orderItems, new OrderItemDAO.OrderItemRowMapper(), bh);
+    }
+
+    /** PaymentRowMapper over V_PAYMENTS */
+    @Benchmark
+    public void paymentMapper(Blackhole bh) throws SQLException {
+        mapAll(payments, new PaymentDAO.PaymentRowMapper(), bh);
+    }
+
+    private static CachedRowSet cache(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.setMaxRows(ROWS);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                CachedRowSet rowSet = RowSetProvider.newFactory().createCachedRowSet();
+                rowSet.populate(rs);
+                plainIntegers(rowSet);
+                return rowSet;
+            }
+        }
+    }
+
+    /**
+     * H2 returns integral NUMBER values with a negative scale (4E+1), which the cached row set's
+     * getLong cannot parse. Rescales them to 0, as Oracle returns them.
+     */
+    private static void plainIntegers(CachedRowSet rowSet) throws SQLException {
+        int columns = rowSet.getMetaData().getColumnCount();
+        rowSet.beforeFirst();
+        while (rowSet.next()) {
+            boolean updated = false;
+            for (int i = 1; i <= columns; i++) {
+                Object value = rowSet.getObject(i);
+                if (value instanceof BigDecimal && ((BigDecimal) value).scale() < 0) {
+                    rowSet.updateBigDecimal(i, ((BigDecimal) value).setScale(0));
+                    updated = true;
+                }
+            }
+            if (updated) {
+                rowSet.updateRow();
+                rowSet.setOriginalRow();
+            }
+        }
+    }
+
+    private static void mapAll(CachedRowSet rows, RowMapper<?> mapper, Blackhole bh) throws SQLException {
+        rows.beforeFirst();
+        int rowNum = 0;
+        while (rows.next()) {
+            bh.consume(mapper.mapRow(rows, rowNum++));
+        }
+    }
+}
@@ -86,4 +86,17 @@ CREATE TABLE OrderItem (
   CONSTRAINT fk_orderitem_product FOREIGN KEY (product_id) REFERENCES Product(product_id),
   CONSTRAINT ck_orderitem_qty CHECK (item_qty > 0),
   CONSTRAINT ck_orderitem_unit_price CHECK (unit_price > 0)
-);
\ No newline at end of file
+);
+
+-- 8) SECONDARY INDEXES
+--   * Oracle does not index foreign key columns automatically
+--   * Composite indexes also cover the sort order of the queries they serve
+CREATE INDEX ix_oi_product        ON OrderItem (product_id);
+CREATE INDEX ix_pay_order_status  ON Payment (order_id, payment_status, payment_amount);
+CREATE INDEX ix_order_cust_date   ON Order_ (customer_id, order_date);
+CREATE INDEX ix_order_emp         ON Order_ (employee_id);
+CREATE INDEX ix_order_date        ON Order_ (order_date, order_id);
+CREATE INDEX ix_order_status      ON Order_ (order_status);
+CREATE INDEX ix_prod_cat_name     ON Product (category_id, product_name);
+CREATE INDEX ix_prod_name         ON Product (product_name, product_id);
+CREATE INDEX ix_cust_name         ON Customer (customer_name, customer_id);
@@ -0,0 +1,146 @@
+package com.cps510.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * Collects connection pool metrics from HikariCP.
+ * Tracks connection acquire latency, usage time, creation time and timeouts,
+ * and exposes the live pool gauges (active, idle, pending) as a snapshot.
+ * Also binds them to the meter registry under HikariCP's standard hikaricp.* meter names,
+ * since a custom tracker factory replaces HikariCP's own Micrometer tracker.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, MeterBinder {
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final AtomicLong maxAcquireNanos = new AtomicLong();
+    private final LongAdder usageCount = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder createdMillis = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    private volatile String poolName;
+    private volatile PoolStats poolStats;
+
+    /**
+     * Called by HikariCP once when the pool starts.
+     * 
+     * @param poolName The name of the pool being tracked
+     * @param poolStats Live pool statistics supplied by HikariCP
+     * @return Tracker that records pool events into this metrics instance
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolName = poolName;
+        this.poolStats = poolStats;
+        return new Tracker();
+    }
+
+    /**
+     * Registers the pool gauges, acquire timer and timeout counter with the meter registry.
+     * 
+     * @param registry Registry the meters are added to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String pool = poolName != null ? poolName : "default";
+        gauge(registry, pool, "hikaricp.connections.active", "Active connections", PoolStats::getActiveConnections);
+        gauge(registry, pool, "hikaricp.connections.idle", "Idle connections", PoolStats::getIdleConnections);
+        gauge(registry, pool, "hikaricp.connections", "Total connections", PoolStats::getTotalConnections);
+        gauge(registry, pool, "hikaricp.connections.pending", "Threads waiting for a connection", PoolStats::getPendingThreads);
+        FunctionTimer.builder("hikaricp.connections.acquire", this, m -> m.acquireCount.sum(),
+                              m -> m.acquireNanos.sum(), TimeUnit.NANOSECONDS)
+            .description("Connection acquire time")
+            .tag("pool", pool)
+            .register(registry);
+        FunctionCounter.builder("hikaricp.connections.timeout", this, m -> m.timeoutCount.sum())
+            .description("Connection acquire timeouts")
+            .tag("pool", pool)
+            .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String pool, String name, String description,
+                       ToIntFunction<PoolStats> value) {
+        Gauge.builder(name, this, m -> m.poolStats != null ? value.applyAsInt(m.poolStats) : 0)
+            .description(description)
+            .tag("pool", pool)
+            .register(registry);
+    }
+
+    /**
+     * Returns a point-in-time view of the pool gauges and accumulated timers.
+     * 
+     * @return Ordered map of metric name to value, suitable for display
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("pool", poolName != null ? poolName : "not started");
+        PoolStats stats = poolStats;
+        if (stats != null) {
+            metrics.put("active", stats.getActiveConnections());
+            metrics.put("idle", stats.getIdleConnections());
+            metrics.put("total", stats.getTotalConnections());
+            metrics.put("pending", stats.getPendingThreads());
+            metrics.put("min", stats.getMinConnections());
+            metrics.put("max", stats.getMaxConnections());
+        }
+        long acquires = acquireCount.sum();
+        metrics.put("acquireCount", acquires);
+        metrics.put("acquireAvgMicros", acquires == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireNanos.sum() / acquires));
+        metrics.put("acquireMaxMicros", TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()));
+        long usages = usageCount.sum();
+        metrics.put("usageAvgMillis", usages == 0 ? 0 : usageMillis.sum() / usages);
+        long created = createdCount.sum();
+        metrics.put("createdCount", created);
+        metrics.put("createAvgMillis", created == 0 ? 0 : createdMillis.sum() / created);
+        metrics.put("timeoutCount", timeoutCount.sum());
+        return metrics;
+    }
+
+    /**
+     * Tracker instance handed to HikariCP; records into the enclosing counters.
+     */
+    private final class Tracker implements IMetricsTracker {
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            createdCount.increment();
+            createdMillis.add(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageCount.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeoutCount.increment();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.cps510.config;
+
+import com.cps510.model.Page;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the DAOs (@Repository classes in com.cps510.dao).
+ * Records two meters per call, tagged with the DAO class and method name:
+ * - dao.calls: timer with latency histogram, also tagged with outcome (SUCCESS or ERROR)
+ *   and the exception class, so its count per outcome doubles as the error counter
+ * - dao.rows: distribution of rows returned or affected (list and page sizes, update counts,
+ *   1 for a single row or scalar, 0 for null)
+ * Overloaded methods get their parameter types in the method tag, e.g.
+ * refreshStatusFromPayments(Long,Long,Date,Date), so each SQL statement has its own series.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.metrics.dao.enabled", havingValue = "true", matchIfMissing = true)
+public class DaoMetricsAspect {
+
+    private final Map<Method, String> methodTags = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.metrics.dao.percentiles-histogram:true}")
+    private boolean percentilesHistogram;
+
+    @Around("within(com.cps510.dao..*) && @within(org.springframework.stereotype.Repository) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String dao = signature.getDeclaringType().getSimpleName();
+        String method = methodTags.computeIfAbsent(signature.getMethod(), DaoMetricsAspect::methodTag);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            record(dao, method, "SUCCESS", "none", System.nanoTime() - start);
+            DistributionSummary.builder("dao.rows")
+                .description("Rows returned or affected per DAO call")
+                .tags("dao", dao, "method", method)
+                .register(registry)
+                .record(rows(result));
+            return result;
+        } catch (Throwable e) {
+            record(dao, method, "ERROR", e.getClass().getSimpleName(), System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    private void record(String dao, String method, String outcome, String exception, long nanos) {
+        Timer.builder("dao.calls")
+            .description("DAO method latency")
+            .tags("dao", dao, "method", method, "outcome", outcome, "exception", exception)
+            .publishPercentileHistogram(percentilesHistogram)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Rows returned or affected: collection and page sizes, update counts (DAO methods
+     * returning int report affected rows), batch update totals, otherwise one row unless null.
+     */
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Page) {
+            return ((Page<?>) result).getItems().size();
+        }
+        if (result instanceof Integer) {
+            return (Integer) result;
+        }
+        if (result instanceof int[]) {
+            long total = 0;
+            for (int count : (int[]) result) {
+                // Statement.SUCCESS_NO_INFO (-2) counts as one row
+                total += count >= 0 ? count : 1;
+            }
+            return total;
+        }
+        return 1;
+    }
+
+    private static String methodTag(Method method) {
+        int overloads = 0;
+        for (Method candidate : method.getDeclaringClass().getMethods()) {
+            if (candidate.getName().equals(method.getName())) {
+                overloads++;
+            }
+        }
+        if (overloads < 2) {
+            return method.getName();
+        }
+        StringBuilder tag = new StringBuilder(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            tag.append(i > 0 ? "," : "").append(parameterTypes[i].getSimpleName());
+        }
+        return tag.append(')').toString();
+    }
+}
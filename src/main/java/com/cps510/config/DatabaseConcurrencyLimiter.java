@@ -0,0 +1,188 @@
+package com.cps510.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits how many threads use the database at once, for the virtual-thread mode.
+ * With a thread per request there is no thread pool left to bound the load, so a fair
+ * semaphore admits at most app.threads.db-concurrency threads (by default the connection
+ * pool size) to hold a connection; the others queue in arrival order. Waiting on the
+ * semaphore parks a virtual thread without pinning its carrier, unlike waiting inside the
+ * pool, and a thread that waits longer than the connection timeout fails the same way as a
+ * pool timeout. Exposes jdbc.limiter.* meters: permits in use, waiting threads, the acquire
+ * timer and the timeout counter.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class DatabaseConcurrencyLimiter implements MeterBinder {
+
+    private final Semaphore permits;
+    private final int limit;
+    private final long timeoutMillis;
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+
+    /**
+     * Creates a limiter.
+     * 
+     * @param limit Threads allowed to hold a connection at once
+     * @param timeoutMillis Longest wait for a permit before the connection request fails
+     */
+    public DatabaseConcurrencyLimiter(int limit, long timeoutMillis) {
+        this.limit = Math.max(1, limit);
+        this.permits = new Semaphore(this.limit, true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Wraps a DataSource so that each connection holds a permit from this limiter until it is closed.
+     * 
+     * @param dataSource The pooled DataSource to limit
+     * @return DataSource whose getConnection waits for a permit
+     */
+    public DataSource limit(DataSource dataSource) {
+        return new LimitedDataSource(dataSource);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jdbc.limiter.active", this, l -> l.limit - l.permits.availablePermits())
+            .description("Threads holding a database connection")
+            .register(registry);
+        Gauge.builder("jdbc.limiter.waiting", permits, Semaphore::getQueueLength)
+            .description("Threads waiting to use the database")
+            .register(registry);
+        FunctionTimer.builder("jdbc.limiter.acquire", this, l -> l.acquireCount.sum(),
+                              l -> l.acquireNanos.sum(), TimeUnit.NANOSECONDS)
+            .description("Time waited to use the database")
+            .register(registry);
+        FunctionCounter.builder("jdbc.limiter.timeout", this, l -> l.timeoutCount.sum())
+            .description("Requests that gave up waiting to use the database")
+            .register(registry);
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting to use the database");
+        }
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTransientConnectionException("Database concurrency limit of " + limit + " reached, " +
+                    permits.getQueueLength() + " threads waiting; no permit within " + timeoutMillis + " ms");
+        }
+        acquireCount.increment();
+        acquireNanos.add(System.nanoTime() - start);
+    }
+
+    private final class LimitedDataSource extends DelegatingDataSource implements Closeable {
+
+        LimitedDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return wrap(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return wrap(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Closes the target pool, so this wrapper can be the application's only DataSource bean.
+         */
+        @Override
+        public void close() throws IOException {
+            if (getTargetDataSource() instanceof Closeable) {
+                ((Closeable) getTargetDataSource()).close();
+            }
+        }
+
+        private Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                                                       new PermitHandler(connection));
+        }
+    }
+
+    /**
+     * Returns the permit when the connection is closed, once.
+     */
+    private final class PermitHandler implements InvocationHandler {
+        private final Connection target;
+        private boolean released;
+
+        PermitHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("close") && !released) {
+                released = true;
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    permits.release();
+                }
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,17 +1,26 @@
 package com.cps510.config;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Database configuration class.
- * Configures the Oracle database connection and JDBC template beans.
- * Reads database connection properties from application.properties.
+ * Configures the pooled Oracle database connection and JDBC template beans.
+ * Reads database connection and pool properties from application.properties.
  * 
  * @author CPS510 Team
  * @version 1.0
@@ -19,6 +28,8 @@ import javax.sql.DataSource;
 @Configuration
 public class DatabaseConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConfig.class);
+
     @Value("${spring.datasource.url}")
     private String url;
 
@@ -31,20 +42,147 @@ public class DatabaseConfig {
     @Value("${spring.datasource.driver-class-name}")
     private String driverClassName;
 
+    @Value("${spring.datasource.hikari.pool-name:cps510-pool}")
+    private String poolName;
+
+    @Value("${spring.datasource.hikari.minimum-idle:5}")
+    private int minimumIdle;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:20}")
+    private int maximumPoolSize;
+
+    @Value("${spring.datasource.hikari.idle-timeout:300000}")
+    private long idleTimeout;
+
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeout;
+
+    @Value("${spring.datasource.hikari.max-lifetime:1800000}")
+    private long maxLifetime;
+
+    @Value("${spring.datasource.hikari.leak-detection-threshold:0}")
+    private long leakDetectionThreshold;
+
+    @Value("${app.datasource.statement-cache-size:50}")
+    private int statementCacheSize;
+
+    @Value("${app.datasource.warm-up:true}")
+    private boolean warmUp;
+
+    @Value("${app.slow-query.enabled:true}")
+    private boolean slowQueryLogEnabled;
+
+    @Value("${app.query-budget.mode:warn}")
+    private String queryBudgetMode;
+
+    @Value("${app.threads.db-concurrency:0}")
+    private int dbConcurrency;
+
     /**
-     * Creates and configures the DataSource bean for Oracle database connection.
-     * Connection details are read from application.properties.
+     * Creates the metrics collector shared with the connection pool.
      * 
-     * @return Configured DataSource for Oracle database
+     * @return ConnectionPoolMetrics instance registered with HikariCP
      */
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(driverClassName);
-        dataSource.setUrl(url);
-        dataSource.setUsername(username);
-        dataSource.setPassword(password);
-        return dataSource;
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    /**
+     * Creates the limiter on threads using the database at once, for the virtual-thread mode
+     * where no request thread pool bounds the load. Admits app.threads.db-concurrency threads,
+     * or as many as the pool has connections if that is 0, and waits up to the connection timeout.
+     * 
+     * @return DatabaseConcurrencyLimiter applied to the pooled DataSource
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+    public DatabaseConcurrencyLimiter databaseConcurrencyLimiter() {
+        return new DatabaseConcurrencyLimiter(dbConcurrency > 0 ? dbConcurrency : maximumPoolSize, connectionTimeout);
+    }
+
+    /**
+     * Creates and configures the pooled DataSource bean for Oracle database connection.
+     * Connection and pool settings are read from application.properties.
+     * The pool starts lazily so the application can boot while the database is unreachable.
+     * Unless both app.slow-query.enabled is false and app.query-budget.mode is "off", the pool is
+     * wrapped so that slow statements are reported to the slow-query log and statements are
+     * counted against the query budget of the current request. In the virtual-thread mode the
+     * pool is also limited by the DatabaseConcurrencyLimiter.
+     * 
+     * @param connectionPoolMetrics Metrics collector for pool events
+     * @param slowQueryLog Log that receives statements slower than the threshold
+     * @param concurrencyLimiter Limiter on concurrent database use, present in the virtual-thread mode
+     * @return Configured HikariCP DataSource for Oracle database
+     */
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource(ConnectionPoolMetrics connectionPoolMetrics, SlowQueryLog slowQueryLog,
+                                ObjectProvider<DatabaseConcurrencyLimiter> concurrencyLimiter) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(driverClassName);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMinimumIdle(minimumIdle);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setIdleTimeout(idleTimeout);
+        config.setConnectionTimeout(connectionTimeout);
+        config.setMaxLifetime(maxLifetime);
+        config.setLeakDetectionThreshold(leakDetectionThreshold);
+        config.setInitializationFailTimeout(-1);
+        config.setRegisterMbeans(true);
+        config.setMetricsTrackerFactory(connectionPoolMetrics);
+        if (driverClassName.startsWith("oracle.") && statementCacheSize > 0) {
+            // Oracle driver-side cache of parsed statements, per physical connection
+            config.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", String.valueOf(statementCacheSize));
+        }
+        DataSource dataSource = new HikariDataSource(config);
+        DatabaseConcurrencyLimiter limiter = concurrencyLimiter.getIfAvailable();
+        if (limiter != null) {
+            dataSource = limiter.limit(dataSource);
+        }
+        boolean countQueries = !"off".equalsIgnoreCase(queryBudgetMode);
+        if (!slowQueryLogEnabled && !countQueries) {
+            return dataSource;
+        }
+        return new InstrumentedDataSource(dataSource, slowQueryLogEnabled ? slowQueryLog : null);
+    }
+
+    /**
+     * Pre-warms the connection pool at startup by opening minimum-idle connections,
+     * so the first requests do not pay the TCP and authentication handshake.
+     * Failures are logged and do not prevent the application from starting.
+     * 
+     * @param dataSource The pooled DataSource to warm up
+     * @return ApplicationRunner that performs the warm-up
+     */
+    @Bean
+    public ApplicationRunner connectionPoolWarmUp(DataSource dataSource) {
+        return args -> {
+            if (!warmUp) {
+                return;
+            }
+            List<Connection> connections = new ArrayList<>();
+            long start = System.nanoTime();
+            try {
+                for (int i = 0; i < minimumIdle; i++) {
+                    connections.add(dataSource.getConnection());
+                }
+                log.info("Connection pool {} warmed up with {} connections in {} ms", poolName,
+                         connections.size(), (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception e) {
+                log.warn("Connection pool warm-up failed after {} connections: {}", connections.size(), e.getMessage());
+            } finally {
+                for (Connection connection : connections) {
+                    try {
+                        connection.close();
+                    } catch (Exception e) {
+                        // Returned to pool; nothing else to do
+                    }
+                }
+            }
+        };
     }
 
     /**
@@ -59,4 +197,3 @@ public class DatabaseConfig {
         return new JdbcTemplate(dataSource);
     }
 }
-
@@ -0,0 +1,63 @@
+package com.cps510.config;
+
+import com.cps510.service.DataSeedService;
+import com.cps510.service.SchemaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Embedded database configuration, active with the "embedded" profile.
+ * Initializes the in-memory H2 database (Oracle compatibility mode) at startup the way
+ * Admin > Create Tables, Populate Tables and Seed Data would, so the application runs
+ * without an Oracle server.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Configuration
+@Profile("embedded")
+public class EmbeddedDatabaseConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedDatabaseConfig.class);
+
+    @Value("${app.embedded.initialize:true}")
+    private boolean initialize;
+
+    @Value("${app.embedded.populate:true}")
+    private boolean populate;
+
+    @Value("${app.embedded.seed-orders:0}")
+    private int seedOrders;
+
+    /**
+     * Creates the schema, inserts the sample data and optionally seeds a generated data set.
+     * Runs before the other startup runners so they see the initialized schema.
+     * 
+     * @param schemaService Service that emits the schema DDL
+     * @param dataSeedService Service that generates the seed data set
+     * @return ApplicationRunner that performs the initialization
+     */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ApplicationRunner embeddedDatabaseInitializer(SchemaService schemaService, DataSeedService dataSeedService) {
+        return args -> {
+            if (!initialize) {
+                return;
+            }
+            log.info("Embedded database: {}", schemaService.createAllTables().trim());
+            if (populate) {
+                log.info("Embedded database: {}", schemaService.populateAllTables());
+            }
+            if (seedOrders > 0) {
+                log.info("Embedded database: {}", dataSeedService.seed(seedOrders));
+            }
+        };
+    }
+}
@@ -0,0 +1,236 @@
+package com.cps510.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource wrapper that times every statement run through its connections, reports
+ * statements slower than the threshold to the SlowQueryLog and counts statements and round
+ * trips for the QueryCounter of the current request.
+ * Connections, statements and result sets are wrapped in JDK proxies that record:
+ * - bind values set on prepared statements (setXxx(index, value, ...))
+ * - execution time of execute, executeQuery, executeUpdate and executeBatch
+ * - for queries, the time spent in ResultSet.next() and the number of rows fetched, so a
+ *   query is reported when its result set is closed, with fetch round trips included but
+ *   the caller's row mapping excluded
+ * - explicit commit and rollback calls, which are round trips of their own
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements Closeable {
+
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * Wraps a pooled DataSource.
+     * 
+     * @param targetDataSource The pooled DataSource to wrap
+     * @param slowQueryLog Log that receives statements slower than its threshold; null to only count statements
+     */
+    public InstrumentedDataSource(DataSource targetDataSource, SlowQueryLog slowQueryLog) {
+        super(targetDataSource);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    /**
+     * Closes the target pool, so this wrapper can be the application's only DataSource bean.
+     */
+    @Override
+    public void close() throws IOException {
+        if (getTargetDataSource() instanceof Closeable) {
+            ((Closeable) getTargetDataSource()).close();
+        }
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                                                   new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.equals("commit") || name.equals("rollback")) {
+                QueryCounter.roundTrip();
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            if (result instanceof CallableStatement) {
+                return wrapStatement(result, CallableStatement.class, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement && name.equals("prepareStatement")) {
+                return wrapStatement(result, PreparedStatement.class, (String) args[0]);
+            }
+            if (result instanceof Statement && name.equals("createStatement")) {
+                return wrapStatement(result, Statement.class, null);
+            }
+            return result;
+        }
+
+        private Object wrapStatement(Object statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                                          new StatementHandler((Statement) statement, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private Object[] binds = new Object[8];
+        private int bindCount;
+        private String batchSql;
+
+        StatementHandler(Statement target, String preparedSql) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("equals")) {
+                return proxy == args[0];
+            }
+            if (name.equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(binds, null);
+                bindCount = 0;
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                // Statement.addBatch(sql): report the batch under its last statement
+                batchSql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                return InstrumentedDataSource.invoke(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0]
+                       : preparedSql != null ? preparedSql : batchSql;
+            QueryCounter.statement();
+            long start = System.nanoTime();
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+            if (result instanceof ResultSet) {
+                // Fetch size as set on the statement; the result set does not report it on every driver
+                ResultSetHandler handler = new ResultSetHandler((ResultSet) result, this, sql, elapsed,
+                                                                target.getFetchSize());
+                return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class}, handler);
+            }
+            finish(sql, rows(result), elapsed);
+            return result;
+        }
+
+        private void bind(int index, Object value) {
+            if (index > binds.length) {
+                binds = Arrays.copyOf(binds, Math.max(index, binds.length * 2));
+            }
+            binds[index - 1] = value;
+            bindCount = Math.max(bindCount, index);
+        }
+
+        void finish(String sql, long rows, long elapsedNanos) {
+            if (slowQueryLog != null && elapsedNanos >= slowQueryLog.getThresholdNanos()) {
+                slowQueryLog.record(getTargetDataSource(), sql, Arrays.copyOf(binds, bindCount), rows, elapsedNanos);
+            }
+        }
+
+        private long rows(Object result) {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            if (result instanceof int[]) {
+                long total = 0;
+                for (int count : (int[]) result) {
+                    total += Math.max(count, 0);
+                }
+                return total;
+            }
+            return -1;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final StatementHandler statement;
+        private final String sql;
+        private final int fetchSize;
+        private long elapsedNanos;
+        private long rows;
+        private boolean finished;
+
+        ResultSetHandler(ResultSet target, StatementHandler statement, String sql, long executeNanos, int fetchSize) {
+            this.target = target;
+            this.statement = statement;
+            this.sql = sql;
+            this.fetchSize = fetchSize;
+            this.elapsedNanos = executeNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                Object result = InstrumentedDataSource.invoke(target, method, args);
+                elapsedNanos += System.nanoTime() - start;
+                if (Boolean.TRUE.equals(result)) {
+                    rows++;
+                }
+                return result;
+            }
+            if (name.equals("close") && !finished) {
+                finished = true;
+                QueryCounter.fetched(rows, fetchSize);
+                statement.finish(sql, rows, elapsedNanos);
+            }
+            return InstrumentedDataSource.invoke(target, method, args);
+        }
+    }
+}
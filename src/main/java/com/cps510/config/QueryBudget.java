@@ -0,0 +1,34 @@
+package com.cps510.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements and database round trips a controller request may issue.
+ * Checked by QueryBudgetInterceptor; handlers without the annotation get the default budget
+ * (app.query-budget.default-statements and app.query-budget.default-round-trips).
+ * Set the budget to what the handler needs today, so that an added query, or a query run
+ * once per row, shows up as soon as the handler is exercised.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    /**
+     * Maximum statements executed (queries, updates and batches, one each).
+     */
+    int statements();
+
+    /**
+     * Maximum round trips: executions, further fetches of query rows, commits and rollbacks.
+     * Negative to use app.query-budget.default-round-trips.
+     */
+    int roundTrips() default -1;
+}
@@ -0,0 +1,24 @@
+package com.cps510.config;
+
+/**
+ * Thrown for a request that issued more statements or round trips than its QueryBudget
+ * when app.query-budget.mode is "fail".
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class QueryBudgetExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final QueryCount count;
+
+    public QueryBudgetExceededException(String message, QueryCount count) {
+        super(message);
+        this.count = count;
+    }
+
+    public QueryCount getCount() {
+        return count;
+    }
+}
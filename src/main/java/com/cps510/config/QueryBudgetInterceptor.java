@@ -0,0 +1,145 @@
+package com.cps510.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements and round trips of every controller request and checks them
+ * against the handler's QueryBudget (or the default budget).
+ * Per request:
+ * - a QueryCount is bound to the request thread and stored in the request attribute
+ *   COUNT_ATTRIBUTE, where MockMvc tests and filters can read it
+ * - the counts are recorded in the http.server.requests.statements and
+ *   http.server.requests.round.trips meters, tagged with the handler, e.g.
+ *   "PaymentController.deletePayment"
+ * - with app.query-budget.mode=warn a request over budget is logged; with "fail" the handler's
+ *   result is replaced by a QueryBudgetExceededException (HTTP 500) before the view renders,
+ *   which is the mode for tests and development
+ * - handlers that write the response themselves (@ResponseBody, ResponseEntity, streaming to the
+ *   HttpServletResponse) have no view to replace, so "fail" cannot fail them; their overruns are
+ *   logged as errors instead
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Component
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+
+    /**
+     * Request attribute holding the request's QueryCount.
+     */
+    public static final String COUNT_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".count";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetInterceptor.class);
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.query-budget.mode:warn}")
+    private String mode;
+
+    @Value("${app.query-budget.default-statements:10}")
+    private int defaultStatements;
+
+    @Value("${app.query-budget.default-round-trips:20}")
+    private int defaultRoundTrips;
+
+    /**
+     * Whether requests are counted at all (app.query-budget.mode is not "off").
+     */
+    public boolean isEnabled() {
+        return !"off".equalsIgnoreCase(mode);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(COUNT_ATTRIBUTE, QueryCounter.start());
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        QueryCount count = (QueryCount) request.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null || !"fail".equalsIgnoreCase(mode)) {
+            return;
+        }
+        if (modelAndView == null) {
+            // The response is already written; afterCompletion logs an overrun
+            return;
+        }
+        String violation = violation((HandlerMethod) handler, count);
+        if (violation != null) {
+            QueryCounter.stop();
+            throw new QueryBudgetExceededException(violation, count);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        QueryCount count = (QueryCount) request.getAttribute(COUNT_ATTRIBUTE);
+        if (count == null) {
+            return;
+        }
+        QueryCounter.stop();
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String name = handlerName(handlerMethod);
+        DistributionSummary.builder("http.server.requests.statements")
+            .description("SQL statements issued per request")
+            .tag("handler", name)
+            .register(registry)
+            .record(count.getStatements());
+        DistributionSummary.builder("http.server.requests.round.trips")
+            .description("Database round trips per request")
+            .tag("handler", name)
+            .register(registry)
+            .record(count.getRoundTrips());
+        if (!(ex instanceof QueryBudgetExceededException)) {
+            String violation = violation(handlerMethod, count);
+            if (violation == null) {
+                return;
+            }
+            if ("fail".equalsIgnoreCase(mode)) {
+                log.error("{} {}: {} (not failed: the handler wrote the response itself)",
+                          request.getMethod(), request.getRequestURI(), violation);
+            } else {
+                log.warn("{} {}: {}", request.getMethod(), request.getRequestURI(), violation);
+            }
+        }
+    }
+
+    /**
+     * Describes how the count exceeds the handler's budget, or returns null if it does not.
+     */
+    private String violation(HandlerMethod handler, QueryCount count) {
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        if (budget == null) {
+            budget = handler.getBeanType().getAnnotation(QueryBudget.class);
+        }
+        int statements = budget != null ? budget.statements() : defaultStatements;
+        int roundTrips = budget != null && budget.roundTrips() >= 0 ? budget.roundTrips() : defaultRoundTrips;
+        if (count.getStatements() <= statements && count.getRoundTrips() <= roundTrips) {
+            return null;
+        }
+        return handlerName(handler) + " exceeded its query budget of " + statements + " statements, " +
+               roundTrips + " round trips: " + count;
+    }
+
+    private static String handlerName(HandlerMethod handler) {
+        return handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName();
+    }
+}
@@ -0,0 +1,57 @@
+package com.cps510.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statements, database round trips and rows counted for one request or measured block.
+ * Round trips are estimated the way the Oracle driver makes them: one per execution,
+ * one per further fetch of a query's rows (every fetch-size rows after the first batch,
+ * which comes back with the execution) and one per explicit commit or rollback.
+ * Counters are atomic, so work fanned out to other threads can add to the same count.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class QueryCount {
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    public long getStatements() {
+        return statements.get();
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    void statement() {
+        statements.incrementAndGet();
+        roundTrips.incrementAndGet();
+    }
+
+    void roundTrip() {
+        roundTrips.incrementAndGet();
+    }
+
+    void fetched(long fetchedRows, int fetchSize) {
+        rows.addAndGet(fetchedRows);
+        roundTrips.addAndGet(fetchedRows / fetchSize);
+    }
+
+    void add(QueryCount other) {
+        statements.addAndGet(other.getStatements());
+        roundTrips.addAndGet(other.getRoundTrips());
+        rows.addAndGet(other.getRows());
+    }
+
+    @Override
+    public String toString() {
+        return getStatements() + " statements, " + getRoundTrips() + " round trips, " + getRows() + " rows";
+    }
+}
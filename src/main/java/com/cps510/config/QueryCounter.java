@@ -0,0 +1,116 @@
+package com.cps510.config;
+
+/**
+ * Counts the SQL statements and round trips issued by the current thread.
+ * A count is bound to the thread by QueryBudgetInterceptor for each controller request, and
+ * InstrumentedDataSource adds every statement run on that thread to it; statements run while
+ * no count is bound are not counted. Work handed to another thread is counted for the request
+ * if that thread attaches the request's count.
+ * measure() counts a single block of code, e.g. to assert the statements a DAO or service
+ * call issues in a test:
+ * 
+ *   QueryCount count = QueryCounter.measure(() -> orderDAO.findById(1L));
+ *   assert count.getStatements() == 1;
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public final class QueryCounter {
+
+    /**
+     * Rows per fetch when the statement leaves it to the driver (the Oracle driver's default).
+     */
+    static final int DEFAULT_FETCH_SIZE = 10;
+
+    private static final ThreadLocal<QueryCount> CURRENT = new ThreadLocal<>();
+
+    private QueryCounter() {
+    }
+
+    /**
+     * Binds a new, empty count to the current thread.
+     * 
+     * @return The bound count
+     */
+    public static QueryCount start() {
+        QueryCount count = new QueryCount();
+        CURRENT.set(count);
+        return count;
+    }
+
+    /**
+     * Unbinds the current thread's count.
+     * 
+     * @return The count that was bound; null if none
+     */
+    public static QueryCount stop() {
+        QueryCount count = CURRENT.get();
+        CURRENT.remove();
+        return count;
+    }
+
+    /**
+     * Returns the count bound to the current thread, or null if statements are not being counted.
+     */
+    public static QueryCount current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds an existing count to the current thread, e.g. a request's count on a worker thread.
+     * 
+     * @param count Count to bind; null unbinds
+     * @return The previously bound count, to be restored with attach() when the work is done
+     */
+    public static QueryCount attach(QueryCount count) {
+        QueryCount previous = CURRENT.get();
+        if (count != null) {
+            CURRENT.set(count);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Counts the statements issued by a block of code on the current thread. Statements are
+     * still added to the enclosing count, if any.
+     * 
+     * @param work Code to run
+     * @return Statements, round trips and rows of the block
+     */
+    public static QueryCount measure(Runnable work) {
+        QueryCount count = new QueryCount();
+        QueryCount outer = attach(count);
+        try {
+            work.run();
+        } finally {
+            attach(outer);
+            if (outer != null) {
+                outer.add(count);
+            }
+        }
+        return count;
+    }
+
+    static void statement() {
+        QueryCount count = CURRENT.get();
+        if (count != null) {
+            count.statement();
+        }
+    }
+
+    static void roundTrip() {
+        QueryCount count = CURRENT.get();
+        if (count != null) {
+            count.roundTrip();
+        }
+    }
+
+    static void fetched(long rows, int fetchSize) {
+        QueryCount count = CURRENT.get();
+        if (count != null) {
+            count.fetched(rows, fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+        }
+    }
+}
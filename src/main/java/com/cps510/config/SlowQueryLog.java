@@ -0,0 +1,270 @@
+package com.cps510.config;
+
+import com.cps510.model.SlowQuery;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Log of statements slower than app.slow-query.threshold-ms, fed by InstrumentedDataSource.
+ * Each slow statement is logged with its SQL, bind values, row count and calling DAO method,
+ * counted in the jdbc.slow.statements meter, and kept in a bounded ring buffer (newest first)
+ * shown on the admin page. The first time a SQL shape is slow, its execution plan is captured
+ * in the background (EXPLAIN PLAN with DBMS_XPLAN on Oracle, EXPLAIN on the embedded database)
+ * and shared by all entries of that shape.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int MAX_PLANS = 500;
+    private static final int MAX_BIND_LENGTH = 100;
+
+    /**
+     * Looked up on first use: the registry binds DataSource metrics, so it cannot be injected
+     * into a bean the DataSource depends on.
+     */
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${spring.datasource.driver-class-name}")
+    private String driverClassName;
+
+    @Value("${app.slow-query.threshold-ms:500}")
+    private long thresholdMillis;
+
+    @Value("${app.slow-query.buffer-size:100}")
+    private int bufferSize;
+
+    @Value("${app.slow-query.explain:true}")
+    private boolean explain;
+
+    private final Deque<SlowQuery> entries = new ArrayDeque<>();
+    private final Map<String, AtomicReference<String>> plansByShape = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor planExecutor = new ThreadPoolExecutor(
+        1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(50), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    long getThresholdNanos() {
+        return TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    /**
+     * Returns the buffered slow statements, newest first.
+     */
+    public List<SlowQuery> getEntries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    /**
+     * Empties the buffer. Captured plans are kept, so a shape is not explained twice.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Records a statement that exceeded the threshold.
+     * 
+     * @param target Unwrapped DataSource, used to capture the plan without being timed itself
+     * @param sql SQL text; null if unknown
+     * @param binds Bind values in parameter order
+     * @param rows Rows fetched or affected; -1 if unknown
+     * @param elapsedNanos Execution time
+     */
+    void record(DataSource target, String sql, Object[] binds, long rows, long elapsedNanos) {
+        String text = sql != null ? sql : "(unknown)";
+        String caller = caller();
+        String bindText = formatBinds(binds);
+        double elapsedMillis = elapsedNanos / 1_000_000.0;
+        log.warn("Slow statement: {} ms, {} rows, {}: {} binds {}",
+                 String.format(Locale.ROOT, "%.1f", elapsedMillis), rows, caller, text, bindText);
+        meterRegistry.ifAvailable(registry -> registry.counter("jdbc.slow.statements", "caller", caller).increment());
+
+        AtomicReference<String> plan = planFor(target, text, binds);
+        SlowQuery entry = new SlowQuery(new Date(), elapsedMillis, text, bindText, rows, caller, plan);
+        synchronized (entries) {
+            entries.addFirst(entry);
+            while (entries.size() > bufferSize) {
+                entries.removeLast();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        planExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the shared plan holder of the statement's SQL shape, scheduling the plan capture
+     * the first time the shape is seen.
+     */
+    private AtomicReference<String> planFor(DataSource target, String sql, Object[] binds) {
+        String shape = sql.trim().replaceAll("\\s+", " ");
+        AtomicReference<String> existing = plansByShape.get(shape);
+        if (existing != null) {
+            return existing;
+        }
+        if (!explain || !isExplainable(shape) || plansByShape.size() >= MAX_PLANS) {
+            return new AtomicReference<>(null);
+        }
+        AtomicReference<String> plan = new AtomicReference<>("Capturing plan...");
+        existing = plansByShape.putIfAbsent(shape, plan);
+        if (existing != null) {
+            return existing;
+        }
+        planExecutor.execute(() -> {
+            try (Connection conn = target.getConnection()) {
+                plan.set(isOracle() ? explainOracle(conn, shape) : explainEmbedded(conn, shape, binds));
+            } catch (Exception e) {
+                plan.set("Plan not available: " + e.getMessage());
+            }
+        });
+        return plan;
+    }
+
+    private static boolean isExplainable(String sql) {
+        String verb = sql.length() >= 6 ? sql.substring(0, 6).toUpperCase(Locale.ROOT) : "";
+        return verb.startsWith("SELECT") || verb.startsWith("WITH") || verb.startsWith("INSERT") ||
+               verb.startsWith("UPDATE") || verb.startsWith("DELETE") || verb.startsWith("MERGE");
+    }
+
+    /**
+     * EXPLAIN PLAN into PLAN_TABLE with bind placeholders renamed to :1, :2, ... (EXPLAIN PLAN
+     * does not take bind values), then formatted by DBMS_XPLAN.
+     */
+    private static String explainOracle(Connection conn, String sql) throws SQLException {
+        String statementId = "SQ" + Integer.toHexString(sql.hashCode());
+        StringBuilder plan = new StringBuilder();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("EXPLAIN PLAN SET STATEMENT_ID = '" + statementId + "' FOR " + namedBinds(sql));
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT plan_table_output FROM TABLE(DBMS_XPLAN.DISPLAY('PLAN_TABLE', '" + statementId + "', 'TYPICAL'))")) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+            stmt.execute("DELETE FROM plan_table WHERE statement_id = '" + statementId + "'");
+        }
+        if (!conn.getAutoCommit()) {
+            conn.commit();
+        }
+        return plan.toString();
+    }
+
+    private static String explainEmbedded(Connection conn, String sql, Object[] binds) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement ps = conn.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < binds.length; i++) {
+                ps.setObject(i + 1, binds[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * Replaces ? placeholders outside string literals with :1, :2, ...
+     */
+    private static String namedBinds(String sql) {
+        StringBuilder named = new StringBuilder(sql.length() + 16);
+        boolean inLiteral = false;
+        int index = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                named.append(':').append(++index);
+            } else {
+                named.append(c);
+            }
+        }
+        return named.toString();
+    }
+
+    private boolean isOracle() {
+        return driverClassName != null && driverClassName.startsWith("oracle.");
+    }
+
+    /**
+     * First application frame outside the configuration classes and proxies, e.g. "OrderDAO.findPage".
+     */
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(frame -> frame.getClassName().startsWith("com.cps510.") &&
+                             !frame.getClassName().startsWith("com.cps510.config.") &&
+                             !frame.getClassName().contains("$$"))
+            .map(frame -> frame.getClassName().substring(frame.getClassName().lastIndexOf('.') + 1) +
+                          "." + frame.getMethodName())
+            .findFirst()
+            .orElse("unknown"));
+    }
+
+    private static String formatBinds(Object[] binds) {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < binds.length; i++) {
+            Object value = binds[i];
+            if (i > 0) {
+                text.append(", ");
+            }
+            if (value == null) {
+                text.append("NULL");
+            } else if (value instanceof Number && !(value instanceof BigDecimal)) {
+                text.append(value);
+            } else {
+                String string = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+                if (string.length() > MAX_BIND_LENGTH) {
+                    string = string.substring(0, MAX_BIND_LENGTH) + "...";
+                }
+                text.append('\'').append(string).append('\'');
+            }
+        }
+        return text.append(']').toString();
+    }
+}
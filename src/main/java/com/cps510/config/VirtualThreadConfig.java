@@ -0,0 +1,72 @@
+package com.cps510.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual-thread mode, enabled with app.threads.virtual=true.
+ * On Java 21 or later, Tomcat runs each request on a new virtual thread instead of a thread
+ * from its pool, so a request blocked on the database no longer occupies a platform thread.
+ * The database side is bounded by the DatabaseConcurrencyLimiter instead.
+ * Known limitation: before Java 24 a thread inside the JDBC driver's synchronized I/O
+ * (ojdbc8 21.7 included) pins its carrier, so no more JDBC calls make progress at once than
+ * there are carrier threads. The scheduler is left as configured; size it with
+ * -Djdk.virtualThreadScheduler.parallelism if that matters more than the CPU count.
+ * On older JVMs the mode logs a warning and requests stay on Tomcat's thread pool.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Autowired
+    private DatabaseConcurrencyLimiter databaseConcurrencyLimiter;
+
+    private volatile ExecutorService requestExecutor;
+
+    /**
+     * Replaces Tomcat's request thread pool with a virtual thread per request.
+     * 
+     * @return Customizer applied when the embedded Tomcat is created
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadRequestExecutor() {
+        return protocolHandler -> {
+            if (!VirtualThreads.isSupported()) {
+                log.warn("app.threads.virtual is set but Java {} has no virtual threads; serving requests on platform threads",
+                         Runtime.version().feature());
+                return;
+            }
+            requestExecutor = VirtualThreads.newExecutor("http-vt-");
+            protocolHandler.setExecutor(requestExecutor);
+            log.info("Serving requests on virtual threads, database concurrency limited to {}",
+                     databaseConcurrencyLimiter.getLimit());
+            if (VirtualThreads.pinsInSynchronized()) {
+                log.info("Java {} pins a virtual thread's carrier during JDBC calls; the driver's I/O runs on at most {} carrier threads at once",
+                         Runtime.version().feature(),
+                         System.getProperty("jdk.virtualThreadScheduler.parallelism",
+                                            String.valueOf(Runtime.getRuntime().availableProcessors())));
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.cps510.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads (Java 21) from code built for Java 11.
+ * The Thread.ofVirtual() API is called reflectively, so the same build runs on Java 11 with
+ * platform threads and on Java 21 or later with virtual threads.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Whether the running JVM has virtual threads.
+     */
+    public static boolean isSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Whether a virtual thread blocking inside a synchronized block pins its carrier thread,
+     * which the JDK fixed in Java 24 (JEP 491). JDBC drivers guard their socket I/O with
+     * synchronized, so before Java 24 every thread inside a JDBC call holds a carrier.
+     */
+    public static boolean pinsInSynchronized() {
+        return Runtime.version().feature() < 24;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread per task.
+     * 
+     * @param namePrefix Thread name prefix; threads are numbered from 1
+     * @return Executor; shut it down when it is no longer needed
+     * @throws IllegalStateException if the JVM has no virtual threads
+     */
+    public static ExecutorService newExecutor(String namePrefix) {
+        if (!isSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later, running " + Runtime.version());
+        }
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual threads", e);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.cps510.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC configuration.
+ * Registers the query budget interceptor for the application's pages, unless
+ * app.query-budget.mode is "off".
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private QueryBudgetInterceptor queryBudgetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (queryBudgetInterceptor.isEnabled()) {
+            registry.addInterceptor(queryBudgetInterceptor).excludePathPatterns("/actuator/**", "/css/**", "/error");
+        }
+    }
+}
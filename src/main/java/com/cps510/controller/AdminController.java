@@ -1,18 +1,43 @@
 package com.cps510.controller;
 
+import com.cps510.config.ConnectionPoolMetrics;
+import com.cps510.config.QueryBudget;
+import com.cps510.config.SlowQueryLog;
+import com.cps510.model.SlowQuery;
+import com.cps510.service.DataSeedService;
+import com.cps510.service.MaterializedViewService;
+import com.cps510.service.PaymentReconciliationService;
+import com.cps510.service.ProductCatalogCache;
+import com.cps510.service.ProductSearchIndex;
+import com.cps510.service.ReferenceDataService;
+import com.cps510.service.SalesAnalyticsService;
+import com.cps510.service.SalesSnapshotService;
 import com.cps510.service.SchemaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Controller for administrative operations:
  * - Drop Tables
  * - Create Tables
  * - Populate Tables
+ * - Seed a generated data set of a given number of orders
  * - Query Tables
+ * - Create/Drop secondary indexes and report index usage
+ * - Create/Refresh/Drop the materialized reporting views and report their staleness
+ * - Reconcile order status against payments for a date range
+ * - Connection pool metrics
+ * - Slow-query log
+ * - Cache statistics
  */
 @Controller
 @RequestMapping("/admin")
@@ -21,6 +46,82 @@ public class AdminController {
     @Autowired
     private SchemaService schemaService;
 
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Autowired
+    private ProductCatalogCache productCatalogCache;
+
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private PaymentReconciliationService paymentReconciliationService;
+
+    @Autowired
+    private DataSeedService dataSeedService;
+
+    @Autowired
+    private SlowQueryLog slowQueryLog;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private SalesSnapshotService salesSnapshotService;
+
+    @Autowired
+    private MaterializedViewService materializedViewService;
+
+    /**
+     * Adds connection pool metrics to every admin page render.
+     */
+    @ModelAttribute("poolMetrics")
+    public Map<String, Object> poolMetrics() {
+        return connectionPoolMetrics.snapshot();
+    }
+
+    /**
+     * Adds cache statistics to every admin page render.
+     */
+    @ModelAttribute("cacheStats")
+    public Map<String, Object> cacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(productCatalogCache.stats());
+        stats.putAll(referenceDataService.stats());
+        stats.putAll(productSearchIndex.stats());
+        stats.putAll(salesAnalyticsService.stats());
+        stats.putAll(salesSnapshotService.stats());
+        stats.putAll(materializedViewService.stats());
+        return stats;
+    }
+
+    /**
+     * Adds the slow-query log (newest first) to every admin page render.
+     */
+    @ModelAttribute("slowQueries")
+    public List<SlowQuery> slowQueries() {
+        return slowQueryLog.getEntries();
+    }
+
+    @ModelAttribute("slowQueryThresholdMs")
+    public long slowQueryThresholdMs() {
+        return slowQueryLog.getThresholdMillis();
+    }
+
+    /**
+     * Empty the slow-query log.
+     */
+    @PostMapping("/clear-slow-queries")
+    public String clearSlowQueries(RedirectAttributes redirectAttributes) {
+        slowQueryLog.clear();
+        redirectAttributes.addFlashAttribute("message", "Slow-query log cleared.");
+        redirectAttributes.addFlashAttribute("messageType", "success");
+        return "redirect:/admin";
+    }
+
     /**
      * Display the admin menu page.
      */
@@ -35,6 +136,8 @@ public class AdminController {
     @PostMapping("/drop-tables")
     public String dropTables(RedirectAttributes redirectAttributes) {
         String result = schemaService.dropAllTables();
+        // Schema scripts bypass the DAOs, so no change events reach the analytics
+        salesAnalyticsService.invalidate();
         redirectAttributes.addFlashAttribute("message", result);
         redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
         return "redirect:/admin";
@@ -46,6 +149,8 @@ public class AdminController {
     @PostMapping("/create-tables")
     public String createTables(RedirectAttributes redirectAttributes) {
         String result = schemaService.createAllTables();
+        // Schema scripts bypass the DAOs, so no change events reach the analytics
+        salesAnalyticsService.invalidate();
         redirectAttributes.addFlashAttribute("message", result);
         redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
         return "redirect:/admin";
@@ -57,6 +162,19 @@ public class AdminController {
     @PostMapping("/populate-tables")
     public String populateTables(RedirectAttributes redirectAttributes) {
         String result = schemaService.populateAllTables();
+        // Schema scripts bypass the DAOs, so no change events reach the analytics
+        salesAnalyticsService.invalidate();
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Add a generated data set with the given number of orders.
+     */
+    @PostMapping("/seed-tables")
+    public String seedTables(@RequestParam(defaultValue = "1000") int orders, RedirectAttributes redirectAttributes) {
+        String result = dataSeedService.seed(orders);
         redirectAttributes.addFlashAttribute("message", result);
         redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
         return "redirect:/admin";
@@ -71,5 +189,115 @@ public class AdminController {
         model.addAttribute("queryResult", result);
         return "admin/menu";
     }
-}
 
+    /**
+     * Create the secondary indexes that do not exist yet.
+     */
+    @PostMapping("/create-indexes")
+    public String createIndexes(RedirectAttributes redirectAttributes) {
+        String result = schemaService.createIndexes();
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Drop the secondary indexes that exist.
+     */
+    @PostMapping("/drop-indexes")
+    public String dropIndexes(RedirectAttributes redirectAttributes) {
+        String result = schemaService.dropIndexes();
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Display the secondary index catalog with status and usage.
+     */
+    @GetMapping("/index-usage")
+    public String indexUsage(Model model) {
+        model.addAttribute("indexUsage", schemaService.getIndexUsage());
+        return "admin/menu";
+    }
+
+    /**
+     * Recompute order status from payments for all orders placed in a date range.
+     */
+    @PostMapping("/reconcile-payments")
+    public String reconcilePayments(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                    RedirectAttributes redirectAttributes) {
+        String result = paymentReconciliationService.reconcile(from, to);
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Reload the sales analytics aggregates from the database.
+     */
+    @QueryBudget(statements = 4, roundTrips = Integer.MAX_VALUE)
+    @PostMapping("/rebuild-analytics")
+    public String rebuildAnalytics(RedirectAttributes redirectAttributes) {
+        String result = salesAnalyticsService.rebuild();
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Load a new sales snapshot for the explore page now.
+     */
+    @QueryBudget(statements = 1, roundTrips = Integer.MAX_VALUE)
+    @PostMapping("/reload-snapshot")
+    public String reloadSnapshot(RedirectAttributes redirectAttributes) {
+        String result = salesSnapshotService.reload();
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Create the materialized reporting views that do not exist yet.
+     */
+    @PostMapping("/create-mviews")
+    public String createMaterializedViews(RedirectAttributes redirectAttributes) {
+        String result = materializedViewService.create();
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Refresh the materialized reporting views now.
+     */
+    @QueryBudget(statements = 8, roundTrips = Integer.MAX_VALUE)
+    @PostMapping("/refresh-mviews")
+    public String refreshMaterializedViews(RedirectAttributes redirectAttributes) {
+        String result = materializedViewService.refresh();
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Drop the materialized reporting views and their logs.
+     */
+    @PostMapping("/drop-mviews")
+    public String dropMaterializedViews(RedirectAttributes redirectAttributes) {
+        String result = materializedViewService.drop();
+        redirectAttributes.addFlashAttribute("message", result);
+        redirectAttributes.addFlashAttribute("messageType", result.contains("Error") ? "danger" : "success");
+        return "redirect:/admin";
+    }
+
+    /**
+     * Display the materialized reporting views with their staleness.
+     */
+    @GetMapping("/mview-status")
+    public String materializedViewStatus(Model model) {
+        model.addAttribute("mviewStatus", materializedViewService.getStatus());
+        return "admin/menu";
+    }
+}
@@ -1,7 +1,9 @@
 package com.cps510.controller;
 
+import com.cps510.config.QueryBudget;
 import com.cps510.dao.CustomerDAO;
 import com.cps510.model.Customer;
+import com.cps510.model.Page;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -25,19 +27,26 @@ public class CustomerController {
     @Autowired
     private CustomerDAO customerDAO;
 
+    @QueryBudget(statements = 1)
     @GetMapping
-    public String listCustomers(@RequestParam(required = false) String search, Model model) {
+    public String listCustomers(@RequestParam(required = false) String search,
+                                @RequestParam(required = false) String after,
+                                @RequestParam(required = false) String before,
+                                @RequestParam(required = false) Integer size, Model model) {
         List<Customer> customers;
         if (search != null && !search.trim().isEmpty()) {
             customers = customerDAO.search(search.trim());
             model.addAttribute("searchTerm", search);
         } else {
-            customers = customerDAO.findAll();
+            Page<Customer> page = customerDAO.findPage(after, before, Page.clampSize(size));
+            customers = page.getItems();
+            model.addAttribute("page", page);
         }
         model.addAttribute("customers", customers);
         return "customers/list";
     }
 
+    @QueryBudget(statements = 1, roundTrips = 1)
     @GetMapping("/{id}")
     public String viewCustomer(@PathVariable Long id, Model model) {
         Customer customer = customerDAO.findById(id);
@@ -0,0 +1,57 @@
+package com.cps510.controller;
+
+import com.cps510.config.QueryBudget;
+import com.cps510.service.ExportService;
+import com.cps510.service.ExportService.Dataset;
+import com.cps510.service.ExportService.Format;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Controller for streaming data exports.
+ * Handles HTTP requests for exporting orders, order line items, and payments as CSV or NDJSON.
+ * Example: /export/orders?format=csv&from=2025-10-01&to=2025-10-31&status=Pending
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Controller
+@RequestMapping("/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // One streamed query whose fetches grow with the export
+    @QueryBudget(statements = 1, roundTrips = Integer.MAX_VALUE)
+    @GetMapping("/{dataset}")
+    public void export(@PathVariable String dataset,
+                       @RequestParam(defaultValue = "csv") String format,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                       @RequestParam(required = false) String status,
+                       HttpServletResponse response) throws IOException {
+        Dataset target = Dataset.fromName(dataset);
+        if (target == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown export: " + dataset);
+        }
+        Format outputFormat = Format.fromName(format);
+        if (outputFormat == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported format: " + format);
+        }
+        response.setContentType(outputFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader("Content-Disposition",
+                "attachment; filename=\"" + target.getName() + "." + outputFormat.getExtension() + "\"");
+        exportService.export(target, outputFormat, from, to, status, response.getOutputStream());
+        response.flushBuffer();
+    }
+}
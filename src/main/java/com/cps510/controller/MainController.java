@@ -1,8 +1,8 @@
 package com.cps510.controller;
 
-import com.cps510.dao.CustomerDAO;
-import com.cps510.dao.OrderDAO;
-import com.cps510.dao.ProductDAO;
+import com.cps510.config.QueryBudget;
+import com.cps510.model.DashboardStats;
+import com.cps510.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -19,31 +19,26 @@ import org.springframework.web.bind.annotation.GetMapping;
 public class MainController {
 
     @Autowired
-    private CustomerDAO customerDAO;
-
-    @Autowired
-    private ProductDAO productDAO;
-
-    @Autowired
-    private OrderDAO orderDAO;
+    private DashboardService dashboardService;
 
     /**
      * Displays the home page dashboard with system statistics.
-     * Shows counts for customers, products, and orders.
+     * Shows counts for customers, products, and orders, plus open orders,
+     * unpaid balance and today's revenue, from the cached dashboard snapshot.
      * 
      * @param model Spring MVC model for passing data to the view
      * @return View name "index" (maps to index.html template)
      */
+    @QueryBudget(statements = 6, roundTrips = 6)
     @GetMapping("/")
     public String index(Model model) {
         // Get statistics for dashboard
-        long customerCount = customerDAO.findAll().size();
-        long productCount = productDAO.findAll().size();
-        long orderCount = orderDAO.findAll().size();
+        DashboardStats stats = dashboardService.getStats();
         
-        model.addAttribute("customerCount", customerCount);
-        model.addAttribute("productCount", productCount);
-        model.addAttribute("orderCount", orderCount);
+        model.addAttribute("customerCount", stats.getCustomerCount());
+        model.addAttribute("productCount", stats.getProductCount());
+        model.addAttribute("orderCount", stats.getOrderCount());
+        model.addAttribute("stats", stats);
         
         return "index";
     }
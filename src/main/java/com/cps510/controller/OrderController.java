@@ -1,17 +1,32 @@
 package com.cps510.controller;
 
+import com.cps510.config.QueryBudget;
 import com.cps510.dao.*;
+import com.cps510.model.Customer;
+import com.cps510.model.Employee;
 import com.cps510.model.Order;
 import com.cps510.model.OrderItem;
+import com.cps510.model.Page;
 import com.cps510.model.Product;
+import com.cps510.service.OrderService;
+import com.cps510.service.ProductCatalogCache;
+import com.cps510.service.QueryFanOut;
+import com.cps510.service.ReferenceDataService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for Order entity operations.
@@ -30,47 +45,64 @@ public class OrderController {
     private OrderDAO orderDAO;
 
     @Autowired
-    private CustomerDAO customerDAO;
+    private OrderItemDAO orderItemDAO;
 
     @Autowired
-    private EmployeeDAO employeeDAO;
+    private OrderService orderService;
 
     @Autowired
-    private ProductDAO productDAO;
+    private ProductCatalogCache productCatalogCache;
 
     @Autowired
-    private OrderItemDAO orderItemDAO;
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private QueryFanOut queryFanOut;
 
+    @QueryBudget(statements = 1)
     @GetMapping
-    public String listOrders(@RequestParam(required = false) String search, Model model) {
+    public String listOrders(@RequestParam(required = false) String search,
+                             @RequestParam(required = false) String after,
+                             @RequestParam(required = false) String before,
+                             @RequestParam(required = false) Integer size, Model model) {
         List<Order> orders;
         if (search != null && !search.trim().isEmpty()) {
             orders = orderDAO.search(search.trim());
             model.addAttribute("searchTerm", search);
         } else {
-            orders = orderDAO.findAll();
+            Page<Order> page = orderDAO.findPage(after, before, Page.clampSize(size));
+            orders = page.getItems();
+            model.addAttribute("page", page);
         }
         model.addAttribute("orders", orders);
         return "orders/list";
     }
 
+    @QueryBudget(statements = 2, roundTrips = 2)
     @GetMapping("/{id}")
     public String viewOrder(@PathVariable Long id, Model model) {
-        Order order = orderDAO.findById(id);
-        if (order == null) {
+        QueryFanOut.Batch batch = queryFanOut.batch("OrderController.viewOrder");
+        QueryFanOut.Read<Order> order = batch.add(() -> orderDAO.findById(id));
+        QueryFanOut.Read<List<OrderItem>> items = batch.add(() -> orderItemDAO.findByOrder(id));
+        batch.await();
+        if (order.get() == null) {
             return "redirect:/orders";
         }
-        List<OrderItem> items = orderItemDAO.findByOrder(id);
-        model.addAttribute("order", order);
-        model.addAttribute("items", items);
+        model.addAttribute("order", order.get());
+        model.addAttribute("items", items.get());
         return "orders/view";
     }
 
+    @QueryBudget(statements = 2)
     @GetMapping("/new")
     public String showOrderForm(Model model) {
+        QueryFanOut.Batch batch = queryFanOut.batch("OrderController.showOrderForm");
+        QueryFanOut.Read<List<Customer>> customers = batch.add(referenceDataService::getCustomers);
+        QueryFanOut.Read<List<Employee>> employees = batch.add(referenceDataService::getEmployees);
+        batch.await();
         model.addAttribute("order", new Order());
-        model.addAttribute("customers", customerDAO.findAll());
-        model.addAttribute("employees", employeeDAO.findAll());
+        model.addAttribute("customers", customers.get());
+        model.addAttribute("employees", employees.get());
         return "orders/form";
     }
 
@@ -92,36 +124,37 @@ public class OrderController {
         }
     }
 
+    @QueryBudget(statements = 3)
     @GetMapping("/{id}/items")
     public String viewOrderItems(@PathVariable Long id, Model model) {
-        Order order = orderDAO.findById(id);
-        if (order == null) {
+        QueryFanOut.Batch batch = queryFanOut.batch("OrderController.viewOrderItems");
+        QueryFanOut.Read<Order> order = batch.add(() -> orderDAO.findById(id));
+        QueryFanOut.Read<List<OrderItem>> items = batch.add(() -> orderItemDAO.findByOrder(id));
+        QueryFanOut.Read<List<Product>> products = batch.add(productCatalogCache::findAll);
+        batch.await();
+        if (order.get() == null) {
             return "redirect:/orders";
         }
-        List<OrderItem> items = orderItemDAO.findByOrder(id);
-        model.addAttribute("order", order);
-        model.addAttribute("items", items);
-        model.addAttribute("products", productDAO.findAll());
+        model.addAttribute("order", order.get());
+        model.addAttribute("items", items.get());
+        model.addAttribute("products", products.get());
         return "orders/items";
     }
 
+    @QueryBudget(statements = 3, roundTrips = 4)
     @PostMapping("/{id}/items/add")
     public String addOrderItem(@PathVariable Long id, @RequestParam Long productId,
                               @RequestParam Integer itemQty, @RequestParam BigDecimal unitPrice,
                               RedirectAttributes redirectAttributes) {
         try {
-            Product product = productDAO.findById(productId);
+            Product product = productCatalogCache.findById(productId);
             if (product == null) {
                 redirectAttributes.addFlashAttribute("errorMessage", "Product not found!");
                 return "redirect:/orders/" + id + "/items";
             }
 
-            OrderItem item = new OrderItem(id, productId, itemQty, unitPrice);
-            orderItemDAO.insert(item);
-
-            // Recalculate order total
-            BigDecimal total = orderItemDAO.calculateOrderTotal(id);
-            orderDAO.updateTotalAmount(id, total);
+            // Inserts the line and adjusts the order total in one transaction
+            orderService.addItem(new OrderItem(id, productId, itemQty, unitPrice));
 
             redirectAttributes.addFlashAttribute("successMessage", "Item added to order!");
             return "redirect:/orders/" + id + "/items";
@@ -131,15 +164,123 @@ public class OrderController {
         }
     }
 
+    /**
+     * Adds several lines to an order from the multi-line entry form.
+     * Blank rows are ignored; the other rows are checked as the JSON variant checks them.
+     * All lines are inserted in one JDBC batch and the order total is recalculated once
+     * for the whole batch, in a single transaction.
+     */
+    @PostMapping("/{id}/items/add-batch")
+    public String addOrderItems(@PathVariable Long id,
+                                @RequestParam(name = "productId", required = false) List<Long> productIds,
+                                @RequestParam(name = "itemQty", required = false) List<Integer> itemQtys,
+                                @RequestParam(name = "unitPrice", required = false) List<BigDecimal> unitPrices,
+                                RedirectAttributes redirectAttributes) {
+        List<OrderItem> items = new ArrayList<>();
+        int rows = productIds != null ? productIds.size() : 0;
+        for (int i = 0; i < rows; i++) {
+            Long productId = productIds.get(i);
+            Integer itemQty = itemQtys != null && i < itemQtys.size() ? itemQtys.get(i) : null;
+            BigDecimal unitPrice = unitPrices != null && i < unitPrices.size() ? unitPrices.get(i) : null;
+            if (productId == null && itemQty == null && unitPrice == null) {
+                continue;
+            }
+            items.add(new OrderItem(id, productId, itemQty, unitPrice));
+        }
+        String invalid = items.isEmpty() ? "No item lines to add" : validateLines(items);
+        if (invalid != null) {
+            redirectAttributes.addFlashAttribute("errorMessage", invalid + "!");
+            return "redirect:/orders/" + id + "/items";
+        }
+        try {
+            int added = orderService.addItems(id, items);
+            redirectAttributes.addFlashAttribute("successMessage", added + " item line(s) added to order!");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage() + "!");
+        } catch (DataRetrievalFailureException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Order not found!");
+        } catch (DuplicateKeyException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", duplicateLineMessage(id) + "!");
+        } catch (Exception e) {
+            redirectAttributes.addFlashAttribute("errorMessage", "Error adding items: " + e.getMessage());
+        }
+        return "redirect:/orders/" + id + "/items";
+    }
+
+    /**
+     * JSON variant of multi-line entry for till integrations.
+     * Accepts a list of {productId, itemQty, unitPrice} objects and returns the new order total.
+     * Responds 400 if any line is incomplete, not positive or for an unknown product, 404 if the
+     * order does not exist and 409 if the order already has a line for one of the products.
+     */
+    @PostMapping(value = "/{id}/items/batch", consumes = "application/json")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> addOrderItemsJson(@PathVariable Long id,
+                                                                 @RequestBody List<OrderItem> items) {
+        if (items == null || items.isEmpty()) {
+            return error(HttpStatus.BAD_REQUEST, "No item lines to add");
+        }
+        String invalid = validateLines(items);
+        if (invalid != null) {
+            return error(HttpStatus.BAD_REQUEST, invalid);
+        }
+        int added;
+        try {
+            added = orderService.addItems(id, items);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (DataRetrievalFailureException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (DuplicateKeyException e) {
+            return error(HttpStatus.CONFLICT, duplicateLineMessage(id));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("orderId", id);
+        result.put("linesAdded", added);
+        result.put("totalAmount", orderDAO.getOrderTotalAmount(id));
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Checks the lines of a batch before any is inserted, so that a bad line is reported by
+     * number instead of by the database constraint it would break.
+     * 
+     * @return Description of the first bad line, or null if every line is complete, positive and for a known product
+     */
+    private String validateLines(List<OrderItem> items) {
+        for (int i = 0; i < items.size(); i++) {
+            OrderItem item = items.get(i);
+            if (item == null || item.getProductId() == null || item.getItemQty() == null || item.getUnitPrice() == null) {
+                return "Line " + (i + 1) + " needs a product, quantity and unit price";
+            }
+            if (item.getItemQty() <= 0 || item.getUnitPrice().signum() <= 0) {
+                return "Line " + (i + 1) + " needs a positive quantity and unit price";
+            }
+            if (productCatalogCache.findById(item.getProductId()) == null) {
+                return "Product " + item.getProductId() + " not found";
+            }
+        }
+        return null;
+    }
+
+    private static String duplicateLineMessage(Long id) {
+        return "Order " + id + " already has a line for one of these products";
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", status.value());
+        body.put("error", message);
+        return ResponseEntity.status(status).body(body);
+    }
+
+    @QueryBudget(statements = 4, roundTrips = 5)
     @PostMapping("/{id}/items/delete")
     public String deleteOrderItem(@PathVariable Long id, @RequestParam Long productId,
                                  RedirectAttributes redirectAttributes) {
         try {
-            orderItemDAO.delete(id, productId);
-            
-            // Recalculate order total
-            BigDecimal total = orderItemDAO.calculateOrderTotal(id);
-            orderDAO.updateTotalAmount(id, total);
+            // Removes the line and adjusts the order total in one transaction
+            orderService.removeItem(id, productId);
 
             redirectAttributes.addFlashAttribute("successMessage", "Item removed from order!");
             return "redirect:/orders/" + id + "/items";
@@ -151,13 +292,17 @@ public class OrderController {
 
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id, Model model) {
-        Order order = orderDAO.findById(id);
-        if (order == null) {
+        QueryFanOut.Batch batch = queryFanOut.batch("OrderController.showEditForm");
+        QueryFanOut.Read<Order> order = batch.add(() -> orderDAO.findById(id));
+        QueryFanOut.Read<List<Customer>> customers = batch.add(referenceDataService::getCustomers);
+        QueryFanOut.Read<List<Employee>> employees = batch.add(referenceDataService::getEmployees);
+        batch.await();
+        if (order.get() == null) {
             return "redirect:/orders";
         }
-        model.addAttribute("order", order);
-        model.addAttribute("customers", customerDAO.findAll());
-        model.addAttribute("employees", employeeDAO.findAll());
+        model.addAttribute("order", order.get());
+        model.addAttribute("customers", customers.get());
+        model.addAttribute("employees", employees.get());
         return "orders/form";
     }
 
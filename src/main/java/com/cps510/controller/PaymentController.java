@@ -1,15 +1,21 @@
 package com.cps510.controller;
 
+import com.cps510.config.QueryBudget;
 import com.cps510.dao.OrderDAO;
 import com.cps510.dao.PaymentDAO;
+import com.cps510.model.Order;
+import com.cps510.model.Page;
 import com.cps510.model.Payment;
+import com.cps510.service.QueryFanOut;
+import com.cps510.service.ReferenceDataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -25,25 +31,40 @@ import java.util.List;
 @RequestMapping("/payments")
 public class PaymentController {
 
+    private static final Logger log = LoggerFactory.getLogger(PaymentController.class);
+
     @Autowired
     private PaymentDAO paymentDAO;
 
     @Autowired
     private OrderDAO orderDAO;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private QueryFanOut queryFanOut;
+
+    @QueryBudget(statements = 1)
     @GetMapping
-    public String listPayments(@RequestParam(required = false) String search, Model model) {
+    public String listPayments(@RequestParam(required = false) String search,
+                               @RequestParam(required = false) String after,
+                               @RequestParam(required = false) String before,
+                               @RequestParam(required = false) Integer size, Model model) {
         List<Payment> payments;
         if (search != null && !search.trim().isEmpty()) {
             payments = paymentDAO.search(search.trim());
             model.addAttribute("searchTerm", search);
         } else {
-            payments = paymentDAO.findAll();
+            Page<Payment> page = paymentDAO.findPage(after, before, Page.clampSize(size));
+            payments = page.getItems();
+            model.addAttribute("page", page);
         }
         model.addAttribute("payments", payments);
         return "payments/list";
     }
 
+    @QueryBudget(statements = 1, roundTrips = 1)
     @GetMapping("/{id}")
     public String viewPayment(@PathVariable Long id, Model model) {
         Payment payment = paymentDAO.findById(id);
@@ -54,6 +75,7 @@ public class PaymentController {
         return "payments/view";
     }
 
+    @QueryBudget(statements = 1)
     @GetMapping("/new")
     public String showPaymentForm(@RequestParam(required = false) Long orderId, Model model) {
         Payment payment = new Payment();
@@ -61,10 +83,11 @@ public class PaymentController {
             payment.setOrderId(orderId);
         }
         model.addAttribute("payment", payment);
-        model.addAttribute("orders", orderDAO.findAll());
+        model.addAttribute("orders", referenceDataService.getOrders());
         return "payments/form";
     }
 
+    @QueryBudget(statements = 3, roundTrips = 3)
     @PostMapping("/new")
     public String createPayment(@ModelAttribute Payment payment, RedirectAttributes redirectAttributes) {
         try {
@@ -86,12 +109,15 @@ public class PaymentController {
 
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id, Model model) {
-        Payment payment = paymentDAO.findById(id);
-        if (payment == null) {
+        QueryFanOut.Batch batch = queryFanOut.batch("PaymentController.showEditForm");
+        QueryFanOut.Read<Payment> payment = batch.add(() -> paymentDAO.findById(id));
+        QueryFanOut.Read<List<Order>> orders = batch.add(referenceDataService::getOrders);
+        batch.await();
+        if (payment.get() == null) {
             return "redirect:/payments";
         }
-        model.addAttribute("payment", payment);
-        model.addAttribute("orders", orderDAO.findAll());
+        model.addAttribute("payment", payment.get());
+        model.addAttribute("orders", orders.get());
         return "payments/form";
     }
 
@@ -113,6 +139,7 @@ public class PaymentController {
         }
     }
 
+    @QueryBudget(statements = 3, roundTrips = 3)
     @PostMapping("/{id}/delete")
     public String deletePayment(@PathVariable Long id, RedirectAttributes redirectAttributes) {
         try {
@@ -137,25 +164,14 @@ public class PaymentController {
     /**
      * Updates the order status based on payment status.
      * If the order is fully paid (total paid >= order total), sets status to "Completed".
-     * Otherwise, keeps it as "Pending".
+     * Otherwise, keeps it as "Pending". Done in a single UPDATE that sums the paid payments.
      */
     private void updateOrderStatusBasedOnPayments(Long orderId) {
         try {
-            BigDecimal orderTotal = orderDAO.getOrderTotalAmount(orderId);
-            BigDecimal totalPaid = paymentDAO.getTotalPaidAmount(orderId);
-            
-            // Compare with tolerance for floating point comparison
-            if (totalPaid.compareTo(orderTotal) >= 0 && orderTotal.compareTo(BigDecimal.ZERO) > 0) {
-                // Order is fully paid
-                orderDAO.updateOrderStatus(orderId, "Completed");
-            } else {
-                // Order is not fully paid yet
-                orderDAO.updateOrderStatus(orderId, "Pending");
-            }
+            orderDAO.refreshStatusFromPayments(orderId);
         } catch (Exception e) {
-            // Log error but don't fail the payment operation
-            System.err.println("Error updating order status for order " + orderId + ": " + e.getMessage());
+            // Log error but don't fail the payment operation; the failed call is also counted in dao.calls
+            log.warn("Error updating order status for order {}", orderId, e);
         }
     }
 }
-
@@ -1,8 +1,14 @@
 package com.cps510.controller;
 
-import com.cps510.dao.CategoryDAO;
+import com.cps510.config.QueryBudget;
 import com.cps510.dao.ProductDAO;
+import com.cps510.model.Category;
+import com.cps510.model.Page;
 import com.cps510.model.Product;
+import com.cps510.service.ProductCatalogCache;
+import com.cps510.service.ProductSearchIndex;
+import com.cps510.service.QueryFanOut;
+import com.cps510.service.ReferenceDataService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -27,24 +33,40 @@ public class ProductController {
     private ProductDAO productDAO;
 
     @Autowired
-    private CategoryDAO categoryDAO;
+    private ProductCatalogCache productCatalogCache;
 
+    @Autowired
+    private ReferenceDataService referenceDataService;
+
+    @Autowired
+    private QueryFanOut queryFanOut;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @QueryBudget(statements = 1)
     @GetMapping
-    public String listProducts(@RequestParam(required = false) String search, Model model) {
+    public String listProducts(@RequestParam(required = false) String search,
+                               @RequestParam(required = false) String after,
+                               @RequestParam(required = false) String before,
+                               @RequestParam(required = false) Integer size, Model model) {
         List<Product> products;
         if (search != null && !search.trim().isEmpty()) {
-            products = productDAO.search(search.trim());
+            products = productSearchIndex.search(search.trim());
             model.addAttribute("searchTerm", search);
         } else {
-            products = productDAO.findAll();
+            Page<Product> page = productDAO.findPage(after, before, Page.clampSize(size));
+            products = page.getItems();
+            model.addAttribute("page", page);
         }
         model.addAttribute("products", products);
         return "products/list";
     }
 
+    @QueryBudget(statements = 1, roundTrips = 1)
     @GetMapping("/{id}")
     public String viewProduct(@PathVariable Long id, Model model) {
-        Product product = productDAO.findById(id);
+        Product product = productCatalogCache.findById(id);
         if (product == null) {
             return "redirect:/products";
         }
@@ -55,7 +77,7 @@ public class ProductController {
     @GetMapping("/new")
     public String showProductForm(Model model) {
         model.addAttribute("product", new Product());
-        model.addAttribute("categories", categoryDAO.findAll());
+        model.addAttribute("categories", referenceDataService.getCategories());
         return "products/form";
     }
 
@@ -67,19 +89,22 @@ public class ProductController {
             return "redirect:/products";
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Error creating product: " + e.getMessage());
-            model.addAttribute("categories", categoryDAO.findAll());
+            model.addAttribute("categories", referenceDataService.getCategories());
             return "redirect:/products/new";
         }
     }
 
     @GetMapping("/{id}/edit")
     public String showEditForm(@PathVariable Long id, Model model) {
-        Product product = productDAO.findById(id);
-        if (product == null) {
+        QueryFanOut.Batch batch = queryFanOut.batch("ProductController.showEditForm");
+        QueryFanOut.Read<Product> product = batch.add(() -> productCatalogCache.findById(id));
+        QueryFanOut.Read<List<Category>> categories = batch.add(referenceDataService::getCategories);
+        batch.await();
+        if (product.get() == null) {
             return "redirect:/products";
         }
-        model.addAttribute("product", product);
-        model.addAttribute("categories", categoryDAO.findAll());
+        model.addAttribute("product", product.get());
+        model.addAttribute("categories", categories.get());
         return "products/form";
     }
 
@@ -92,7 +117,7 @@ public class ProductController {
             return "redirect:/products/" + id;
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Error updating product: " + e.getMessage());
-            model.addAttribute("categories", categoryDAO.findAll());
+            model.addAttribute("categories", referenceDataService.getCategories());
             return "redirect:/products/" + id + "/edit";
         }
     }
@@ -0,0 +1,117 @@
+package com.cps510.controller;
+
+import com.cps510.config.QueryBudget;
+import com.cps510.service.SalesAnalyticsService;
+import com.cps510.service.SalesSnapshot;
+import com.cps510.service.SalesSnapshot.Dimension;
+import com.cps510.service.SalesSnapshot.Measure;
+import com.cps510.service.SalesSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Controller for the sales reports pages.
+ * Shows the A5 reports (top products, category revenue, unpaid orders, products never ordered)
+ * from the aggregates kept by the sales analytics service, and ad-hoc sales queries from the
+ * in-memory sales snapshot.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Controller
+@RequestMapping("/reports")
+public class ReportController {
+
+    private static final int TOP_PRODUCTS = 5;
+
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Autowired
+    private SalesSnapshotService salesSnapshotService;
+
+    /**
+     * Displays the sales reports.
+     * Usually runs no statement at all; after unidentified writes the aggregates are rebuilt,
+     * which reads whole tables.
+     * 
+     * @param unpaidLimit Maximum number of unpaid orders to list
+     * @param model Spring MVC model for passing data to the view
+     * @return View name "reports/sales"
+     */
+    @QueryBudget(statements = 6, roundTrips = Integer.MAX_VALUE)
+    @GetMapping
+    public String salesReports(@RequestParam(defaultValue = "50") int unpaidLimit, Model model) {
+        int limit = Math.max(1, Math.min(unpaidLimit, 10000));
+        model.addAttribute("topLimit", TOP_PRODUCTS);
+        model.addAttribute("topProducts", salesAnalyticsService.getTopProducts(TOP_PRODUCTS));
+        model.addAttribute("categoryThreshold", salesAnalyticsService.getCategoryThreshold());
+        model.addAttribute("categoryRevenue", salesAnalyticsService.getCategoryRevenue());
+        model.addAttribute("unpaidLimit", limit);
+        model.addAttribute("unpaidOrders", salesAnalyticsService.getUnpaidOrders(limit));
+        model.addAttribute("unpaidOrderCount", salesAnalyticsService.getUnpaidOrderCount());
+        model.addAttribute("neverOrdered", salesAnalyticsService.getNeverOrderedProducts());
+        return "reports/sales";
+    }
+
+    /**
+     * Displays an ad-hoc sales query: order lines in a date range, filtered by product, brand,
+     * category and employee, grouped by one of them or by day, top groups first.
+     * Runs no statement except to load the first snapshot.
+     * 
+     * @param model Spring MVC model for passing data to the view
+     * @return View name "reports/explore"
+     */
+    @QueryBudget(statements = 1, roundTrips = Integer.MAX_VALUE)
+    @GetMapping("/explore")
+    public String explore(@RequestParam(defaultValue = "PRODUCT") Dimension groupBy,
+                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                          @RequestParam(required = false) String product,
+                          @RequestParam(required = false) String brand,
+                          @RequestParam(required = false) String category,
+                          @RequestParam(required = false) String employee,
+                          @RequestParam(defaultValue = "REVENUE") Measure orderBy,
+                          @RequestParam(defaultValue = "20") int limit, Model model) {
+        Map<Dimension, String> filters = new EnumMap<>(Dimension.class);
+        addFilter(filters, Dimension.PRODUCT, product);
+        addFilter(filters, Dimension.BRAND, brand);
+        addFilter(filters, Dimension.CATEGORY, category);
+        addFilter(filters, Dimension.EMPLOYEE, employee);
+        int groups = Math.max(1, Math.min(limit, 1000));
+
+        model.addAttribute("slices", salesSnapshotService.query(groupBy, filters, from, to, orderBy, groups));
+        SalesSnapshot snapshot = salesSnapshotService.getSnapshot();
+        model.addAttribute("snapshot", snapshot);
+        model.addAttribute("dimensions", Dimension.values());
+        model.addAttribute("measures", Measure.values());
+        model.addAttribute("brands", snapshot.values(Dimension.BRAND));
+        model.addAttribute("categories", snapshot.values(Dimension.CATEGORY));
+        model.addAttribute("employees", snapshot.values(Dimension.EMPLOYEE));
+        model.addAttribute("groupBy", groupBy);
+        model.addAttribute("orderBy", orderBy);
+        model.addAttribute("from", from);
+        model.addAttribute("to", to);
+        model.addAttribute("product", product);
+        model.addAttribute("brand", brand);
+        model.addAttribute("category", category);
+        model.addAttribute("employee", employee);
+        model.addAttribute("limit", groups);
+        return "reports/explore";
+    }
+
+    private static void addFilter(Map<Dimension, String> filters, Dimension dimension, String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            filters.put(dimension, value.trim());
+        }
+    }
+}
@@ -2,8 +2,8 @@ package com.cps510.dao;
 
 import com.cps510.model.Category;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
@@ -24,15 +24,22 @@ public class CategoryDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * RowMapper implementation for mapping ResultSet rows to Category objects.
      */
-    private static final class CategoryRowMapper implements RowMapper<Category> {
+    static final class CategoryRowMapper extends ColumnIndexRowMapper<Category> {
+        CategoryRowMapper() {
+            super(new String[]{"category_id", "category_name"}, new String[0]);
+        }
+
         @Override
-        public Category mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected Category mapRow(ResultSet rs, int[] col) throws SQLException {
             Category category = new Category();
-            category.setCategoryId(rs.getLong("category_id"));
-            category.setCategoryName(rs.getString("category_name"));
+            category.setCategoryId(rs.getLong(col[0]));
+            category.setCategoryName(rs.getString(col[1]));
             return category;
         }
     }
@@ -68,7 +75,9 @@ public class CategoryDAO {
      */
     public int insert(Category category) {
         String sql = "INSERT INTO Category_ (category_id, category_name) VALUES (?, ?)";
-        return jdbcTemplate.update(sql, category.getCategoryId(), category.getCategoryName());
+        int rows = jdbcTemplate.update(sql, category.getCategoryId(), category.getCategoryName());
+        publishChange();
+        return rows;
     }
 
     /**
@@ -79,7 +88,9 @@ public class CategoryDAO {
      */
     public int update(Category category) {
         String sql = "UPDATE Category_ SET category_name = ? WHERE category_id = ?";
-        return jdbcTemplate.update(sql, category.getCategoryName(), category.getCategoryId());
+        int rows = jdbcTemplate.update(sql, category.getCategoryName(), category.getCategoryId());
+        publishChange();
+        return rows;
     }
 
     /**
@@ -90,7 +101,15 @@ public class CategoryDAO {
      */
     public int delete(Long categoryId) {
         String sql = "DELETE FROM Category_ WHERE category_id = ?";
-        return jdbcTemplate.update(sql, categoryId);
+        int rows = jdbcTemplate.update(sql, categoryId);
+        publishChange();
+        return rows;
     }
-}
 
+    /**
+     * Notifies listeners (caches, dashboard statistics) that the Category_ table has changed.
+     */
+    private void publishChange() {
+        eventPublisher.publishEvent(new DataChangeEvent(this, "Category_"));
+    }
+}
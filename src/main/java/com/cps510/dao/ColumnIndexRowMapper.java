@@ -0,0 +1,117 @@
+package com.cps510.dao;
+
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Base RowMapper that resolves column positions from ResultSetMetaData once per result set
+ * and maps every row with index-based getters.
+ * Columns are declared up front as required or optional; an optional column that the query
+ * does not select resolves to {@link #ABSENT} and is skipped without throwing.
+ * Each DAO creates a new mapper per query, so resolution happens once per query.
+ * 
+ * @param <T> The entity type produced for each row
+ * @author CPS510 Team
+ * @version 1.0
+ */
+abstract class ColumnIndexRowMapper<T> implements RowMapper<T> {
+
+    /** Resolved position of an optional column that is not in the result set. */
+    static final int ABSENT = 0;
+
+    private final String[] required;
+    private final String[] optional;
+
+    private ResultSet resolvedFor;
+    private int[] columns;
+
+    /**
+     * Creates a mapper for the given columns.
+     * Positions passed to {@link #mapRow(ResultSet, int[])} follow the declaration order:
+     * required columns first, then optional columns.
+     * 
+     * @param required Columns every query using this mapper must select
+     * @param optional Columns that only some queries select
+     */
+    ColumnIndexRowMapper(String[] required, String[] optional) {
+        this.required = required;
+        this.optional = optional;
+    }
+
+    @Override
+    public final T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (rs != resolvedFor) {
+            columns = resolve(rs.getMetaData());
+            resolvedFor = rs;
+        }
+        return mapRow(rs, columns);
+    }
+
+    /**
+     * Maps the current row using resolved column positions.
+     * 
+     * @param rs The result set positioned on the row to map
+     * @param columns 1-based column positions in declaration order, ABSENT for missing optional columns
+     * @return The mapped entity
+     * @throws SQLException if a column cannot be read
+     */
+    protected abstract T mapRow(ResultSet rs, int[] columns) throws SQLException;
+
+    /**
+     * Reads a nullable string from an optional column.
+     */
+    static String getString(ResultSet rs, int column) throws SQLException {
+        return column == ABSENT ? null : rs.getString(column);
+    }
+
+    /**
+     * Reads a nullable decimal from an optional column.
+     */
+    static BigDecimal getBigDecimal(ResultSet rs, int column) throws SQLException {
+        return column == ABSENT ? null : rs.getBigDecimal(column);
+    }
+
+    /**
+     * Reads a nullable timestamp from an optional column.
+     */
+    static Timestamp getTimestamp(ResultSet rs, int column) throws SQLException {
+        return column == ABSENT ? null : rs.getTimestamp(column);
+    }
+
+    /**
+     * Reads a long from an optional column, or null if the column is absent.
+     * A SQL NULL reads as 0, matching ResultSet.getLong.
+     */
+    static Long getLong(ResultSet rs, int column) throws SQLException {
+        return column == ABSENT ? null : rs.getLong(column);
+    }
+
+    private int[] resolve(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            // Iterating backwards keeps the first occurrence of a duplicated label
+            positions.put(metaData.getColumnLabel(i).toUpperCase(Locale.ROOT), i);
+        }
+        int[] resolved = new int[required.length + optional.length];
+        for (int i = 0; i < required.length; i++) {
+            Integer position = positions.get(required[i].toUpperCase(Locale.ROOT));
+            if (position == null) {
+                throw new SQLException("Column '" + required[i] + "' not found in result set");
+            }
+            resolved[i] = position;
+        }
+        for (int i = 0; i < optional.length; i++) {
+            Integer position = positions.get(optional[i].toUpperCase(Locale.ROOT));
+            resolved[required.length + i] = position != null ? position : ABSENT;
+        }
+        return resolved;
+    }
+}
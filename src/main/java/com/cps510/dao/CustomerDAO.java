@@ -1,17 +1,15 @@
 package com.cps510.dao;
 
 import com.cps510.model.Customer;
+import com.cps510.model.Page;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,18 +26,28 @@ public class CustomerDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
     /**
      * RowMapper implementation for mapping ResultSet rows to Customer objects.
      * Maps database columns to Customer entity properties.
      */
-    private static final class CustomerRowMapper implements RowMapper<Customer> {
+    static final class CustomerRowMapper extends ColumnIndexRowMapper<Customer> {
+        CustomerRowMapper() {
+            super(new String[]{"customer_id", "customer_name", "customer_email", "customer_phone"}, new String[0]);
+        }
+
         @Override
-        public Customer mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected Customer mapRow(ResultSet rs, int[] col) throws SQLException {
             Customer customer = new Customer();
-            customer.setCustomerId(rs.getLong("customer_id"));
-            customer.setCustomerName(rs.getString("customer_name"));
-            customer.setCustomerEmail(rs.getString("customer_email"));
-            customer.setCustomerPhone(rs.getString("customer_phone"));
+            customer.setCustomerId(rs.getLong(col[0]));
+            customer.setCustomerName(rs.getString(col[1]));
+            customer.setCustomerEmail(rs.getString(col[2]));
+            customer.setCustomerPhone(rs.getString(col[3]));
             return customer;
         }
     }
@@ -54,6 +62,45 @@ public class CustomerDAO {
         return jdbcTemplate.query(sql, new CustomerRowMapper());
     }
 
+    /**
+     * Retrieves one page of customers using keyset pagination on (customer_name, customer_id).
+     * 
+     * @param after Cursor of the last customer on the previous page, or null
+     * @param before Cursor of the first customer on the following page (to page backwards), or null
+     * @param pageSize Maximum number of customers to return
+     * @return Page of customers with next/previous cursors
+     */
+    public Page<Customer> findPage(String after, String before, int pageSize) {
+        boolean backward = before != null;
+        String[] key = KeysetCursor.decode(backward ? before : after, 2, 1);
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT customer_id, customer_name, customer_email, customer_phone FROM Customer");
+        if (key != null) {
+            sql.append(backward ? " WHERE (customer_name < ? OR (customer_name = ? AND customer_id < ?))"
+                                : " WHERE (customer_name > ? OR (customer_name = ? AND customer_id > ?))");
+            args.add(key[0]);
+            args.add(key[0]);
+            args.add(Long.parseLong(key[1]));
+        }
+        sql.append(backward ? " ORDER BY customer_name DESC, customer_id DESC" : " ORDER BY customer_name, customer_id");
+        args.add(pageSize + 1);
+        List<Customer> rows = jdbcTemplate.query("SELECT * FROM (" + sql + ") WHERE ROWNUM <= ?",
+                                                 new CustomerRowMapper(), args.toArray());
+        return Page.fromSlice(rows, pageSize, backward, key != null,
+                              c -> KeysetCursor.encode(c.getCustomerName(), c.getCustomerId()));
+    }
+
+    /**
+     * Counts all customers without loading them.
+     * 
+     * @return Number of rows in the Customer table
+     */
+    public long count() {
+        String sql = "SELECT COUNT(*) FROM Customer";
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0L;
+    }
+
     /**
      * Retrieves a customer by their unique ID.
      * 
@@ -68,38 +115,18 @@ public class CustomerDAO {
 
     /**
      * Inserts a new customer into the database.
-     * Uses Oracle sequence (CUSTOMER_SEQ) via trigger to auto-generate the ID.
+     * Uses Oracle sequence (CUSTOMER_SEQ) to generate the ID: leased in blocks by IdAllocator when enabled,
+     * otherwise assigned by trigger and returned in the same round trip via RETURNING INTO.
      * 
      * @param customer The Customer entity to insert
      * @return The generated customer ID
      */
     public Long insert(Customer customer) {
-        String sql = "INSERT INTO Customer (customer_name, customer_email, customer_phone) VALUES (?, ?, ?)";
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-        
-        jdbcTemplate.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, customer.getCustomerName());
-            ps.setString(2, customer.getCustomerEmail());
-            ps.setString(3, customer.getCustomerPhone());
-            return ps;
-        }, keyHolder);
-
-        // Note: Oracle sequences are handled by triggers, so we may need to query the sequence
-        // For now, we'll use a workaround to get the generated ID
-        if (keyHolder.getKey() == null) {
-            // Query the current sequence value
-            String seqSql = "SELECT CUSTOMER_SEQ.CURRVAL FROM dual";
-            try {
-                Long id = jdbcTemplate.queryForObject(seqSql, Long.class);
-                return id;
-            } catch (Exception e) {
-                // If sequence hasn't been used yet, get max + 1
-                String maxSql = "SELECT NVL(MAX(customer_id), 0) FROM Customer";
-                return jdbcTemplate.queryForObject(maxSql, Long.class);
-            }
-        }
-        return keyHolder.getKey().longValue();
+        String sql = "INSERT INTO Customer (customer_id, customer_name, customer_email, customer_phone) VALUES (?, ?, ?, ?)";
+        Long customerId = idAllocator.insert("CUSTOMER_SEQ", sql, "customer_id", customer.getCustomerName(),
+                                             customer.getCustomerEmail(), customer.getCustomerPhone());
+        publishChange();
+        return customerId;
     }
 
     /**
@@ -110,8 +137,10 @@ public class CustomerDAO {
      */
     public int update(Customer customer) {
         String sql = "UPDATE Customer SET customer_name = ?, customer_email = ?, customer_phone = ? WHERE customer_id = ?";
-        return jdbcTemplate.update(sql, customer.getCustomerName(), customer.getCustomerEmail(), 
-                                   customer.getCustomerPhone(), customer.getCustomerId());
+        int rows = jdbcTemplate.update(sql, customer.getCustomerName(), customer.getCustomerEmail(), 
+                                       customer.getCustomerPhone(), customer.getCustomerId());
+        publishChange();
+        return rows;
     }
 
     /**
@@ -122,7 +151,9 @@ public class CustomerDAO {
      */
     public int delete(Long customerId) {
         String sql = "DELETE FROM Customer WHERE customer_id = ?";
-        return jdbcTemplate.update(sql, customerId);
+        int rows = jdbcTemplate.update(sql, customerId);
+        publishChange();
+        return rows;
     }
 
     /**
@@ -141,5 +172,11 @@ public class CustomerDAO {
         String searchPattern = "%" + searchTerm + "%";
         return jdbcTemplate.query(sql, new CustomerRowMapper(), searchPattern, searchPattern, searchPattern);
     }
-}
 
+    /**
+     * Notifies listeners (caches, dashboard statistics) that the Customer table has changed.
+     */
+    private void publishChange() {
+        eventPublisher.publishEvent(new DataChangeEvent(this, "Customer"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.cps510.dao;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Application event published by DAOs after a successful write (insert, update or delete).
+ * Lets caches and derived views invalidate themselves without the DAOs knowing about them.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class DataChangeEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String tableName;
+    private final Object key;
+
+    /**
+     * Creates a new change event.
+     * 
+     * @param source The DAO that performed the write
+     * @param tableName The database table that was modified (e.g., "Order_")
+     */
+    public DataChangeEvent(Object source, String tableName) {
+        this(source, tableName, null);
+    }
+
+    /**
+     * Creates a new change event for a single row.
+     * 
+     * @param source The DAO that performed the write
+     * @param tableName The database table that was modified (e.g., "Product")
+     * @param key Primary key of the modified row, or null if unknown or several rows changed
+     */
+    public DataChangeEvent(Object source, String tableName, Object key) {
+        super(source);
+        this.tableName = tableName;
+        this.key = key;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public Object getKey() {
+        return key;
+    }
+
+    /**
+     * Checks whether this event concerns any of the given tables.
+     * 
+     * @param tableNames Table names to test against (case-insensitive)
+     * @return true if the modified table is one of the given tables
+     */
+    public boolean affects(String... tableNames) {
+        for (String name : tableNames) {
+            if (name.equalsIgnoreCase(tableName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
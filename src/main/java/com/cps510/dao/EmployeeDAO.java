@@ -2,8 +2,8 @@ package com.cps510.dao;
 
 import com.cps510.model.Employee;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
@@ -24,18 +24,29 @@ public class EmployeeDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
     /**
      * RowMapper implementation for mapping ResultSet rows to Employee objects.
      */
-    private static final class EmployeeRowMapper implements RowMapper<Employee> {
+    static final class EmployeeRowMapper extends ColumnIndexRowMapper<Employee> {
+        EmployeeRowMapper() {
+            super(new String[]{"employee_id", "employee_name", "employee_email", "employee_phone", "employee_role"},
+                  new String[0]);
+        }
+
         @Override
-        public Employee mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected Employee mapRow(ResultSet rs, int[] col) throws SQLException {
             Employee employee = new Employee();
-            employee.setEmployeeId(rs.getLong("employee_id"));
-            employee.setEmployeeName(rs.getString("employee_name"));
-            employee.setEmployeeEmail(rs.getString("employee_email"));
-            employee.setEmployeePhone(rs.getString("employee_phone"));
-            employee.setEmployeeRole(rs.getString("employee_role"));
+            employee.setEmployeeId(rs.getLong(col[0]));
+            employee.setEmployeeName(rs.getString(col[1]));
+            employee.setEmployeeEmail(rs.getString(col[2]));
+            employee.setEmployeePhone(rs.getString(col[3]));
+            employee.setEmployeeRole(rs.getString(col[4]));
             return employee;
         }
     }
@@ -64,24 +75,19 @@ public class EmployeeDAO {
 
     /**
      * Inserts a new employee into the database.
-     * Uses Oracle sequence (EMPLOYEE_SEQ) via trigger to auto-generate the ID.
+     * Uses Oracle sequence (EMPLOYEE_SEQ) to generate the ID: leased in blocks by IdAllocator when enabled,
+     * otherwise assigned by trigger and returned in the same round trip via RETURNING INTO.
      * 
      * @param employee The Employee entity to insert
      * @return The generated employee ID
      */
     public Long insert(Employee employee) {
-        String sql = "INSERT INTO Employee (employee_name, employee_email, employee_phone, employee_role) VALUES (?, ?, ?, ?)";
-        jdbcTemplate.update(sql, employee.getEmployeeName(), employee.getEmployeeEmail(), 
-                           employee.getEmployeePhone(), employee.getEmployeeRole());
-        
-        // Get the generated ID from sequence
-        String seqSql = "SELECT EMPLOYEE_SEQ.CURRVAL FROM dual";
-        try {
-            return jdbcTemplate.queryForObject(seqSql, Long.class);
-        } catch (Exception e) {
-            String maxSql = "SELECT NVL(MAX(employee_id), 0) FROM Employee";
-            return jdbcTemplate.queryForObject(maxSql, Long.class);
-        }
+        String sql = "INSERT INTO Employee (employee_id, employee_name, employee_email, employee_phone, employee_role) VALUES (?, ?, ?, ?, ?)";
+        Long employeeId = idAllocator.insert("EMPLOYEE_SEQ", sql, "employee_id", employee.getEmployeeName(),
+                                             employee.getEmployeeEmail(), employee.getEmployeePhone(),
+                                             employee.getEmployeeRole());
+        publishChange();
+        return employeeId;
     }
 
     /**
@@ -92,8 +98,10 @@ public class EmployeeDAO {
      */
     public int update(Employee employee) {
         String sql = "UPDATE Employee SET employee_name = ?, employee_email = ?, employee_phone = ?, employee_role = ? WHERE employee_id = ?";
-        return jdbcTemplate.update(sql, employee.getEmployeeName(), employee.getEmployeeEmail(), 
-                                   employee.getEmployeePhone(), employee.getEmployeeRole(), employee.getEmployeeId());
+        int rows = jdbcTemplate.update(sql, employee.getEmployeeName(), employee.getEmployeeEmail(), 
+                                       employee.getEmployeePhone(), employee.getEmployeeRole(), employee.getEmployeeId());
+        publishChange();
+        return rows;
     }
 
     /**
@@ -104,7 +112,15 @@ public class EmployeeDAO {
      */
     public int delete(Long employeeId) {
         String sql = "DELETE FROM Employee WHERE employee_id = ?";
-        return jdbcTemplate.update(sql, employeeId);
+        int rows = jdbcTemplate.update(sql, employeeId);
+        publishChange();
+        return rows;
     }
-}
 
+    /**
+     * Notifies listeners (caches, dashboard statistics) that the Employee table has changed.
+     */
+    private void publishChange() {
+        eventPublisher.publishEvent(new DataChangeEvent(this, "Employee"));
+    }
+}
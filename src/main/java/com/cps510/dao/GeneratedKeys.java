@@ -0,0 +1,49 @@
+package com.cps510.dao;
+
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Helper for INSERT statements whose primary key is assigned by the database
+ * (Oracle sequence via BEFORE INSERT trigger).
+ * Requests the key column by name, which the Oracle driver turns into
+ * INSERT ... RETURNING key INTO ?, so the new ID comes back in the same round trip
+ * instead of a follow-up SELECT SEQ.CURRVAL or SELECT MAX(id).
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+final class GeneratedKeys {
+
+    private GeneratedKeys() {
+    }
+
+    /**
+     * Executes an INSERT and returns the generated value of the key column.
+     * 
+     * @param jdbcTemplate JdbcTemplate to execute with
+     * @param sql INSERT statement with ? placeholders
+     * @param keyColumn Name of the generated key column (e.g., "order_id")
+     * @param args Bind values for the placeholders, in order
+     * @return The generated key
+     * @throws DataRetrievalFailureException if the driver returns no key
+     */
+    static Long insert(JdbcTemplate jdbcTemplate, String sql, String keyColumn, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, new String[] {keyColumn});
+            new ArgumentPreparedStatementSetter(args).setValues(ps);
+            return ps;
+        }, keyHolder);
+        Number key = keyHolder.getKey();
+        if (key == null) {
+            throw new DataRetrievalFailureException("No generated key returned for " + keyColumn);
+        }
+        return key.longValue();
+    }
+}
@@ -0,0 +1,178 @@
+package com.cps510.dao;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Application-side ID allocator for sequence-backed primary keys.
+ * Leases a block of IDs per sequence in one round trip and hands them out from memory
+ * without locking; only the thread that exhausts a block fetches the next one.
+ * DAOs then supply the ID in the INSERT, so the BEFORE INSERT trigger skips its
+ * NEXTVAL lookup (its WHEN clause only fires for NULL IDs).
+ * When disabled, inserts bind a NULL ID and fall back to trigger-assigned keys
+ * returned via {@link GeneratedKeys}.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Component
+public class IdAllocator {
+
+    private static final Pattern SEQUENCE_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_]*");
+    private static final Block EMPTY = new Block(new long[0]);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.id.allocator.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.id.allocator.block-size:50}")
+    private int blockSize;
+
+    /**
+     * Query returning block-size sequence values; {seq} is replaced by the sequence name
+     * and the single ? is bound to the block size.
+     */
+    @Value("${app.id.allocator.lease-sql:SELECT {seq}.NEXTVAL FROM dual CONNECT BY LEVEL <= ?}")
+    private String leaseSql;
+
+    private final Map<String, SequencePool> pools = new ConcurrentHashMap<>();
+    private final AtomicInteger leaseCount = new AtomicInteger();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the next ID for a sequence from the current in-memory block.
+     * 
+     * @param sequenceName Oracle sequence name (e.g., "ORDER_SEQ")
+     * @return A unique ID drawn from the sequence
+     */
+    public long nextId(String sequenceName) {
+        return pools.computeIfAbsent(sequenceName.toUpperCase(), SequencePool::new).next();
+    }
+
+    /**
+     * Executes an INSERT whose first placeholder is the primary key column.
+     * With the allocator enabled the ID is taken from the in-memory block and bound explicitly;
+     * otherwise NULL is bound and the trigger-assigned key is returned by the driver.
+     * 
+     * @param sequenceName Sequence that owns the key (e.g., "ORDER_SEQ")
+     * @param sql INSERT statement whose first ? is the key column
+     * @param keyColumn Name of the key column (e.g., "order_id")
+     * @param values Bind values for the remaining placeholders, in order
+     * @return The ID of the inserted row
+     */
+    public Long insert(String sequenceName, String sql, String keyColumn, Object... values) {
+        Object[] args = new Object[values.length + 1];
+        System.arraycopy(values, 0, args, 1, values.length);
+        if (!enabled) {
+            args[0] = new SqlParameterValue(Types.NUMERIC, null);
+            return GeneratedKeys.insert(jdbcTemplate, sql, keyColumn, args);
+        }
+        long id = nextId(sequenceName);
+        args[0] = id;
+        jdbcTemplate.update(sql, args);
+        return id;
+    }
+
+    /**
+     * Discards all leased blocks. Called after schema changes that drop, recreate
+     * or resynchronize the sequences, so stale IDs are never handed out.
+     */
+    public void reset() {
+        pools.clear();
+    }
+
+    /**
+     * Number of blocks leased from the database since startup.
+     */
+    public int getLeaseCount() {
+        return leaseCount.get();
+    }
+
+    private Block lease(String sequenceName) {
+        if (!SEQUENCE_NAME.matcher(sequenceName).matches()) {
+            throw new IllegalArgumentException("Invalid sequence name: " + sequenceName);
+        }
+        String sql = leaseSql.replace("{seq}", sequenceName);
+        List<Long> ids = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            // The whole block, and the end of the result, come back with the execution
+            ps.setFetchSize(blockSize + 1);
+            ps.setInt(1, blockSize);
+            return ps;
+        }, new SingleColumnRowMapper<>(Long.class));
+        if (ids.isEmpty()) {
+            throw new DataRetrievalFailureException("No IDs leased from " + sequenceName);
+        }
+        long[] block = new long[ids.size()];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = ids.get(i);
+        }
+        leaseCount.incrementAndGet();
+        return new Block(block);
+    }
+
+    /**
+     * A leased block of IDs; the cursor is advanced with a single atomic increment.
+     */
+    private static final class Block {
+        private final long[] ids;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        Block(long[] ids) {
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * Current block for one sequence.
+     */
+    private final class SequencePool {
+        private final String sequenceName;
+        private final AtomicReference<Block> current = new AtomicReference<>(EMPTY);
+        // Not a monitor: leasing queries the database, which would pin a virtual thread
+        private final ReentrantLock leaseLock = new ReentrantLock();
+
+        SequencePool(String sequenceName) {
+            this.sequenceName = sequenceName;
+        }
+
+        long next() {
+            while (true) {
+                Block block = current.get();
+                int index = block.cursor.getAndIncrement();
+                if (index < block.ids.length) {
+                    return block.ids[index];
+                }
+                leaseLock.lock();
+                try {
+                    // Another thread may already have replaced the exhausted block
+                    if (current.get() == block) {
+                        current.set(lease(sequenceName));
+                    }
+                } finally {
+                    leaseLock.unlock();
+                }
+            }
+        }
+    }
+}
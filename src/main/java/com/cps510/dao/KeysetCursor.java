@@ -0,0 +1,67 @@
+package com.cps510.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors used by keyset (seek) pagination.
+ * A cursor holds the sort key values of a boundary row, e.g. (order_date, order_id),
+ * so the next page can be fetched with a WHERE predicate instead of an OFFSET.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public final class KeysetCursor {
+
+    private static final String SEPARATOR = "\u001F";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encodes sort key values as a URL-safe cursor string.
+     * 
+     * @param parts Sort key values of the boundary row, in sort order
+     * @return URL-safe cursor string
+     */
+    public static String encode(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(Object...)}.
+     * Cursors come from the request, so a cursor whose numeric parts do not parse is treated
+     * like a malformed one and the caller falls back to the first page.
+     * 
+     * @param cursor Cursor string from the request, may be null or blank
+     * @param expectedParts Number of sort key values the caller expects
+     * @param numericParts Indexes of the parts the caller parses with Long.parseLong
+     * @return Sort key values, or null if the cursor is absent or malformed
+     */
+    public static String[] decode(String cursor, int expectedParts, int... numericParts) {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                return null;
+            }
+            for (int index : numericParts) {
+                Long.parseLong(parts[index]);
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException is an IllegalArgumentException
+            return null;
+        }
+    }
+}
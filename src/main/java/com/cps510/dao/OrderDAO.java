@@ -1,14 +1,17 @@
 package com.cps510.dao;
 
 import com.cps510.model.Order;
+import com.cps510.model.Page;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -16,7 +19,8 @@ import java.util.List;
  * Data Access Object (DAO) for Order entity.
  * Provides CRUD operations, customer-based queries, order status updates, total calculations, and search functionality.
  * Uses Spring JDBC for database operations and joins with Customer and Employee tables.
- * Handles both V_ORDERS_SUMMARY view queries and direct table queries for different use cases.
+ * Handles both V_ORDERS_SUMMARY view queries and direct table queries for different use cases;
+ * view reads go to MV_ORDERS_SUMMARY instead when ReportingViewRouter allows it.
  * 
  * @author CPS510 Team
  * @version 1.0
@@ -27,40 +31,38 @@ public class OrderDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private ReportingViewRouter reportingViewRouter;
+
     /**
      * RowMapper implementation for mapping ResultSet rows from V_ORDERS_SUMMARY view to Order objects.
      * Note: V_ORDERS_SUMMARY view doesn't include customer_id/employee_id, only names.
      * Handles optional fields gracefully for queries that may not include all columns.
      */
-    private static final class OrderRowMapper implements RowMapper<Order> {
+    static final class OrderRowMapper extends ColumnIndexRowMapper<Order> {
+        OrderRowMapper() {
+            super(new String[]{"order_id", "order_date", "total_amount", "order_status"},
+                  new String[]{"customer_id", "employee_id", "customer_name", "employee_name"});
+        }
+
         @Override
-        public Order mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected Order mapRow(ResultSet rs, int[] col) throws SQLException {
             Order order = new Order();
-            order.setOrderId(rs.getLong("order_id"));
-            order.setOrderDate(rs.getTimestamp("order_date"));
-            order.setTotalAmount(rs.getBigDecimal("total_amount"));
-            order.setOrderStatus(rs.getString("order_status"));
+            order.setOrderId(rs.getLong(col[0]));
+            order.setOrderDate(rs.getTimestamp(col[1]));
+            order.setTotalAmount(rs.getBigDecimal(col[2]));
+            order.setOrderStatus(rs.getString(col[3]));
             // Note: V_ORDERS_SUMMARY view doesn't include customer_id/employee_id, only names
-            try {
-                order.setCustomerId(rs.getLong("customer_id"));
-            } catch (SQLException e) {
-                // Not in view, will be null
-            }
-            try {
-                order.setEmployeeId(rs.getLong("employee_id"));
-            } catch (SQLException e) {
-                // Not in view, will be null
-            }
-            try {
-                order.setCustomerName(rs.getString("customer_name"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
-            try {
-                order.setEmployeeName(rs.getString("employee_name"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
+            order.setCustomerId(getLong(rs, col[4]));
+            order.setEmployeeId(getLong(rs, col[5]));
+            order.setCustomerName(getString(rs, col[6]));
+            order.setEmployeeName(getString(rs, col[7]));
             return order;
         }
     }
@@ -68,14 +70,102 @@ public class OrderDAO {
     /**
      * Retrieves all orders from the database using V_ORDERS_SUMMARY view, ordered by order date (descending).
      * Note: This query does not return customer_id or employee_id, only names.
+     * Reads the materialized view only when it includes every write, since the result is cached.
      * 
      * @return List of all Order entities, ordered by order date (most recent first)
      */
     public List<Order> findAll() {
-        String sql = "SELECT * FROM V_ORDERS_SUMMARY ORDER BY order_date DESC";
+        String sql = "SELECT * FROM " + reportingViewRouter.forCurrent(ReportingViewRouter.ReportingView.ORDERS_SUMMARY) +
+                     " ORDER BY order_date DESC";
         return jdbcTemplate.query(sql, new OrderRowMapper());
     }
 
+    /**
+     * Retrieves one page of orders using keyset pagination on (order_date, order_id), newest first.
+     * Each page is a bounded index range scan, so cost does not grow with page depth.
+     * Reads the materialized view while it lags the tables by at most app.mview.max-lag-ms.
+     * 
+     * @param after Cursor of the last order on the previous page, or null
+     * @param before Cursor of the first order on the following page (to page backwards), or null
+     * @param pageSize Maximum number of orders to return
+     * @return Page of orders with next/previous cursors
+     */
+    public Page<Order> findPage(String after, String before, int pageSize) {
+        boolean backward = before != null;
+        String[] key = KeysetCursor.decode(backward ? before : after, 2, 0, 1);
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT order_id, order_date, order_status, total_amount, customer_name, employee_name " +
+                                              "FROM " + reportingViewRouter.forList(ReportingViewRouter.ReportingView.ORDERS_SUMMARY));
+        if (key != null) {
+            Timestamp orderDate = new Timestamp(Long.parseLong(key[0]));
+            // The driver binds a Timestamp as TIMESTAMP; casting the bind, not the DATE column,
+            // keeps IX_ORDER_DATE usable for the seek
+            sql.append(backward ? " WHERE (order_date > CAST(? AS DATE) OR (order_date = CAST(? AS DATE) AND order_id > ?))"
+                                : " WHERE (order_date < CAST(? AS DATE) OR (order_date = CAST(? AS DATE) AND order_id < ?))");
+            args.add(orderDate);
+            args.add(orderDate);
+            args.add(Long.parseLong(key[1]));
+        }
+        sql.append(backward ? " ORDER BY order_date, order_id" : " ORDER BY order_date DESC, order_id DESC");
+        args.add(pageSize + 1);
+        List<Order> rows = jdbcTemplate.query("SELECT * FROM (" + sql + ") WHERE ROWNUM <= ?",
+                                              new OrderRowMapper(), args.toArray());
+        return Page.fromSlice(rows, pageSize, backward, key != null,
+                              o -> KeysetCursor.encode(o.getOrderDate().getTime(), o.getOrderId()));
+    }
+
+    /**
+     * Counts all orders without loading them.
+     * Queries Order_ directly rather than the joined V_ORDERS_SUMMARY view.
+     * 
+     * @return Number of rows in the Order_ table
+     */
+    public long count() {
+        String sql = "SELECT COUNT(*) FROM Order_";
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Counts orders with a given status.
+     * 
+     * @param status The order status to count (e.g., "Pending")
+     * @return Number of orders with the given status
+     */
+    public long countByStatus(String status) {
+        String sql = "SELECT COUNT(*) FROM Order_ WHERE order_status = ?";
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, status);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Calculates the unpaid balance across all orders that are not completed.
+     * Formula: SUM(total_amount - paid) where paid is the sum of 'Paid' payments per order.
+     * 
+     * @return Total outstanding amount, or BigDecimal.ZERO if nothing is outstanding
+     */
+    public BigDecimal getOutstandingAmount() {
+        String sql = "SELECT NVL(SUM(o.total_amount - NVL(p.paid, 0)), 0) FROM Order_ o " +
+                     "LEFT JOIN (SELECT order_id, SUM(payment_amount) AS paid FROM Payment " +
+                     "WHERE payment_status = 'Paid' GROUP BY order_id) p ON p.order_id = o.order_id " +
+                     "WHERE o.order_status <> 'Completed'";
+        BigDecimal total = jdbcTemplate.queryForObject(sql, BigDecimal.class);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
+    /**
+     * Sums order totals for orders placed on or after the given date.
+     * 
+     * @param since Inclusive lower bound on order_date
+     * @return Revenue since the given date, or BigDecimal.ZERO if there are no orders
+     */
+    public BigDecimal getRevenueSince(Date since) {
+        // CAST: JdbcTemplate binds a java.util.Date as TIMESTAMP, which would convert the DATE column
+        String sql = "SELECT NVL(SUM(total_amount), 0) FROM Order_ WHERE order_date >= CAST(? AS DATE)";
+        BigDecimal total = jdbcTemplate.queryForObject(sql, BigDecimal.class, since);
+        return total != null ? total : BigDecimal.ZERO;
+    }
+
     /**
      * Retrieves an order by its unique ID, including customer and employee IDs.
      * Uses direct table query with joins to get all required fields including IDs.
@@ -114,52 +204,45 @@ public class OrderDAO {
      * Includes customer_id and employee_id fields that are not in V_ORDERS_SUMMARY view.
      * Handles optional display fields gracefully.
      */
-    private static final class OrderRowMapperWithIds implements RowMapper<Order> {
+    static final class OrderRowMapperWithIds extends ColumnIndexRowMapper<Order> {
+        OrderRowMapperWithIds() {
+            super(new String[]{"order_id", "order_date", "total_amount", "order_status", "customer_id", "employee_id"},
+                  new String[]{"customer_name", "employee_name"});
+        }
+
         @Override
-        public Order mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected Order mapRow(ResultSet rs, int[] col) throws SQLException {
             Order order = new Order();
-            order.setOrderId(rs.getLong("order_id"));
-            order.setOrderDate(rs.getTimestamp("order_date"));
-            order.setTotalAmount(rs.getBigDecimal("total_amount"));
-            order.setOrderStatus(rs.getString("order_status"));
-            order.setCustomerId(rs.getLong("customer_id"));
-            order.setEmployeeId(rs.getLong("employee_id"));
-            try {
-                order.setCustomerName(rs.getString("customer_name"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
-            try {
-                order.setEmployeeName(rs.getString("employee_name"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
+            order.setOrderId(rs.getLong(col[0]));
+            order.setOrderDate(rs.getTimestamp(col[1]));
+            order.setTotalAmount(rs.getBigDecimal(col[2]));
+            order.setOrderStatus(rs.getString(col[3]));
+            order.setCustomerId(rs.getLong(col[4]));
+            order.setEmployeeId(rs.getLong(col[5]));
+            order.setCustomerName(getString(rs, col[6]));
+            order.setEmployeeName(getString(rs, col[7]));
             return order;
         }
     }
 
     /**
      * Inserts a new order into the database.
-     * Uses Oracle sequence (ORDER_SEQ) via trigger to auto-generate the ID.
+     * Uses Oracle sequence (ORDER_SEQ) to generate the ID: leased in blocks by IdAllocator when enabled,
+     * otherwise assigned by trigger and returned in the same round trip via RETURNING INTO.
      * Sets order date to current date if not provided.
      * 
      * @param order The Order entity to insert
      * @return The generated order ID
      */
     public Long insert(Order order) {
-        String sql = "INSERT INTO Order_ (order_date, total_amount, order_status, customer_id, employee_id) " +
-                     "VALUES (?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO Order_ (order_id, order_date, total_amount, order_status, customer_id, employee_id) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)";
         Date orderDate = order.getOrderDate() != null ? order.getOrderDate() : new Date();
-        jdbcTemplate.update(sql, orderDate, order.getTotalAmount(), order.getOrderStatus(),
-                           order.getCustomerId(), order.getEmployeeId());
-        
-        String seqSql = "SELECT ORDER_SEQ.CURRVAL FROM dual";
-        try {
-            return jdbcTemplate.queryForObject(seqSql, Long.class);
-        } catch (Exception e) {
-            String maxSql = "SELECT NVL(MAX(order_id), 0) FROM Order_";
-            return jdbcTemplate.queryForObject(maxSql, Long.class);
-        }
+        Long orderId = idAllocator.insert("ORDER_SEQ", sql, "order_id", orderDate,
+                                          order.getTotalAmount(), order.getOrderStatus(),
+                                          order.getCustomerId(), order.getEmployeeId());
+        publishChange(orderId);
+        return orderId;
     }
 
     /**
@@ -171,9 +254,11 @@ public class OrderDAO {
     public int update(Order order) {
         String sql = "UPDATE Order_ SET order_date = ?, total_amount = ?, order_status = ?, " +
                      "customer_id = ?, employee_id = ? WHERE order_id = ?";
-        return jdbcTemplate.update(sql, order.getOrderDate(), order.getTotalAmount(), 
-                                   order.getOrderStatus(), order.getCustomerId(), 
-                                   order.getEmployeeId(), order.getOrderId());
+        int rows = jdbcTemplate.update(sql, order.getOrderDate(), order.getTotalAmount(), 
+                                       order.getOrderStatus(), order.getCustomerId(), 
+                                       order.getEmployeeId(), order.getOrderId());
+        publishChange(order.getOrderId());
+        return rows;
     }
 
     /**
@@ -184,7 +269,9 @@ public class OrderDAO {
      */
     public int delete(Long orderId) {
         String sql = "DELETE FROM Order_ WHERE order_id = ?";
-        return jdbcTemplate.update(sql, orderId);
+        int rows = jdbcTemplate.update(sql, orderId);
+        publishChange(orderId);
+        return rows;
     }
 
     /**
@@ -197,7 +284,39 @@ public class OrderDAO {
      */
     public int updateTotalAmount(Long orderId, BigDecimal totalAmount) {
         String sql = "UPDATE Order_ SET total_amount = ? WHERE order_id = ?";
-        return jdbcTemplate.update(sql, totalAmount, orderId);
+        int rows = jdbcTemplate.update(sql, totalAmount, orderId);
+        publishChange(orderId);
+        return rows;
+    }
+
+    /**
+     * Locks a specific order row until the transaction ends.
+     * Order line changes take this lock before touching OrderItem, so concurrent edits of the
+     * same order always acquire their locks in the same order and each sees the others' lines.
+     * 
+     * @param orderId The unique identifier of the order
+     * @return true if the order exists
+     */
+    public boolean lockOrder(Long orderId) {
+        String sql = "SELECT order_id FROM Order_ WHERE order_id = ? FOR UPDATE";
+        return !jdbcTemplate.queryForList(sql, Long.class, orderId).isEmpty();
+    }
+
+    /**
+     * Recomputes the total amount for a specific order from its order items in a single statement.
+     * Equivalent to calculating SUM(item_qty * unit_price) and then calling updateTotalAmount,
+     * but in one round trip.
+     * 
+     * @param orderId The unique identifier of the order
+     * @return Number of rows affected (should be 1 if update successful)
+     */
+    public int recalculateTotalAmount(Long orderId) {
+        String sql = "UPDATE Order_ SET total_amount = " +
+                     "(SELECT NVL(SUM(item_qty * unit_price), 0) FROM OrderItem WHERE order_id = ?) " +
+                     "WHERE order_id = ?";
+        int rows = jdbcTemplate.update(sql, orderId, orderId);
+        publishChange(orderId);
+        return rows;
     }
 
     /**
@@ -210,7 +329,73 @@ public class OrderDAO {
      */
     public int updateOrderStatus(Long orderId, String status) {
         String sql = "UPDATE Order_ SET order_status = ? WHERE order_id = ?";
-        return jdbcTemplate.update(sql, status, orderId);
+        int rows = jdbcTemplate.update(sql, status, orderId);
+        publishChange(orderId);
+        return rows;
+    }
+
+    /**
+     * Status an order should have given its payments: "Completed" when the paid payments
+     * cover a positive total, otherwise "Pending". Correlated on the Order_ alias o.
+     */
+    private static final String STATUS_FROM_PAYMENTS =
+        "CASE WHEN o.total_amount > 0 AND o.total_amount <= " +
+        "(SELECT NVL(SUM(p.payment_amount), 0) FROM Payment p " +
+        "WHERE p.order_id = o.order_id AND p.payment_status = 'Paid') " +
+        "THEN 'Completed' ELSE 'Pending' END";
+
+    /**
+     * Sets the status of a specific order from its payments in a single statement.
+     * The order is marked "Completed" when the sum of its paid payments is at least its total,
+     * otherwise "Pending". Rows that already have the right status are not rewritten.
+     * 
+     * @param orderId The unique identifier of the order
+     * @return Number of rows whose status changed (0 or 1)
+     */
+    public int refreshStatusFromPayments(Long orderId) {
+        String sql = "UPDATE Order_ o SET o.order_status = " + STATUS_FROM_PAYMENTS + " " +
+                     "WHERE o.order_id = ? AND o.order_status <> " + STATUS_FROM_PAYMENTS;
+        int rows = jdbcTemplate.update(sql, orderId);
+        if (rows > 0) {
+            publishChange(orderId);
+        }
+        return rows;
+    }
+
+    /**
+     * Sets the status from payments for every order in an ID range placed within a date range,
+     * in a single set-based statement. Used by the bulk payment reconciler, one call per chunk.
+     * 
+     * @param fromOrderId Lowest order ID in the chunk (inclusive)
+     * @param toOrderId Highest order ID in the chunk (inclusive)
+     * @param from Start of the order date range (inclusive)
+     * @param to End of the order date range (exclusive)
+     * @return Number of rows whose status changed
+     */
+    public int refreshStatusFromPayments(Long fromOrderId, Long toOrderId, Date from, Date to) {
+        String sql = "UPDATE Order_ o SET o.order_status = " + STATUS_FROM_PAYMENTS + " " +
+                     "WHERE o.order_id BETWEEN ? AND ? AND o.order_date >= CAST(? AS DATE) AND o.order_date < CAST(? AS DATE) " +
+                     "AND o.order_status <> " + STATUS_FROM_PAYMENTS;
+        int rows = jdbcTemplate.update(sql, fromOrderId, toOrderId,
+                                       new Timestamp(from.getTime()), new Timestamp(to.getTime()));
+        if (rows > 0) {
+            publishChange();
+        }
+        return rows;
+    }
+
+    /**
+     * Retrieves the IDs of orders placed within a date range, in ascending order.
+     * 
+     * @param from Start of the order date range (inclusive)
+     * @param to End of the order date range (exclusive)
+     * @return Order IDs in ascending order
+     */
+    public List<Long> findIdsByDateRange(Date from, Date to) {
+        // DATE binds: a TIMESTAMP bind would convert the column and rule out its index
+        String sql = "SELECT order_id FROM Order_ WHERE order_date >= CAST(? AS DATE) AND order_date < CAST(? AS DATE) " +
+                     "ORDER BY order_id";
+        return jdbcTemplate.queryForList(sql, Long.class, new Timestamp(from.getTime()), new Timestamp(to.getTime()));
     }
 
     /**
@@ -249,5 +434,18 @@ public class OrderDAO {
         String searchPattern = "%" + searchTerm + "%";
         return jdbcTemplate.query(sql, new OrderRowMapperWithIds(), searchPattern, searchPattern, searchPattern, searchPattern);
     }
-}
 
+    /**
+     * Notifies listeners (caches, dashboard statistics) that the Order_ table has changed.
+     */
+    private void publishChange() {
+        eventPublisher.publishEvent(new DataChangeEvent(this, "Order_"));
+    }
+
+    /**
+     * Notifies listeners that a single Order_ row has changed.
+     */
+    private void publishChange(Long orderId) {
+        eventPublisher.publishEvent(new DataChangeEvent(this, "Order_", orderId));
+    }
+}
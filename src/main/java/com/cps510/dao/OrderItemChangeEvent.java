@@ -0,0 +1,44 @@
+package com.cps510.dao;
+
+import com.cps510.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * Change event for OrderItem writes whose lines are known to the DAO (inserts, and deletes of
+ * a line that was read first). Carries the lines so that listeners maintaining aggregates can
+ * apply the write as a delta instead of re-reading the table. Other OrderItem writes publish a
+ * plain DataChangeEvent.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class OrderItemChangeEvent extends DataChangeEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<OrderItem> added;
+    private final List<OrderItem> removed;
+
+    /**
+     * Creates a new order item change event.
+     * 
+     * @param source The DAO that performed the write
+     * @param orderId Order the lines belong to, or null if they span several orders
+     * @param added Lines inserted by the write
+     * @param removed Lines deleted by the write
+     */
+    public OrderItemChangeEvent(Object source, Long orderId, List<OrderItem> added, List<OrderItem> removed) {
+        super(source, "OrderItem", orderId);
+        this.added = List.copyOf(added);
+        this.removed = List.copyOf(removed);
+    }
+
+    public List<OrderItem> getAdded() {
+        return added;
+    }
+
+    public List<OrderItem> getRemoved() {
+        return removed;
+    }
+}
@@ -2,11 +2,13 @@ package com.cps510.dao;
 
 import com.cps510.model.OrderItem;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
@@ -25,38 +27,34 @@ public class OrderItemDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReportingViewRouter reportingViewRouter;
+
     /**
      * RowMapper implementation for mapping ResultSet rows to OrderItem objects.
      * Handles optional fields from joined tables (product_name, product_brand, category_name, line_total) gracefully.
      */
-    private static final class OrderItemRowMapper implements RowMapper<OrderItem> {
+    static final class OrderItemRowMapper extends ColumnIndexRowMapper<OrderItem> {
+        OrderItemRowMapper() {
+            super(new String[]{"order_id", "product_id", "item_qty", "unit_price"},
+                  new String[]{"product_name", "product_brand", "category_name", "line_total"});
+        }
+
         @Override
-        public OrderItem mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected OrderItem mapRow(ResultSet rs, int[] col) throws SQLException {
             OrderItem item = new OrderItem();
-            item.setOrderId(rs.getLong("order_id"));
-            item.setProductId(rs.getLong("product_id"));
-            item.setItemQty(rs.getInt("item_qty"));
-            item.setUnitPrice(rs.getBigDecimal("unit_price"));
-            try {
-                item.setProductName(rs.getString("product_name"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
-            try {
-                item.setProductBrand(rs.getString("product_brand"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
-            try {
-                item.setCategoryName(rs.getString("category_name"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
-            try {
-                item.setLineTotal(rs.getBigDecimal("line_total"));
-            } catch (SQLException e) {
-                // Calculate if not present
-            }
+            item.setOrderId(rs.getLong(col[0]));
+            item.setProductId(rs.getLong(col[1]));
+            item.setItemQty(rs.getInt(col[2]));
+            item.setUnitPrice(rs.getBigDecimal(col[3]));
+            item.setProductName(getString(rs, col[4]));
+            item.setProductBrand(getString(rs, col[5]));
+            item.setCategoryName(getString(rs, col[6]));
+            // Calculated by the model if not present
+            item.setLineTotal(getBigDecimal(rs, col[7]));
             return item;
         }
     }
@@ -64,12 +62,13 @@ public class OrderItemDAO {
     /**
      * Retrieves all order items for a specific order using V_ORDER_LINE_ITEMS view.
      * Includes product and category information from joined tables.
+     * Reads MV_ORDER_LINE_ITEMS instead when it includes every write to this order's lines.
      * 
      * @param orderId The unique identifier of the order
      * @return List of order items for the specified order, ordered by product name
      */
     public List<OrderItem> findByOrder(Long orderId) {
-        String sql = "SELECT * FROM V_ORDER_LINE_ITEMS WHERE order_id = ? ORDER BY product_name";
+        String sql = "SELECT * FROM " + reportingViewRouter.forOrder(orderId) + " WHERE order_id = ? ORDER BY product_name";
         return jdbcTemplate.query(sql, new OrderItemRowMapper(), orderId);
     }
 
@@ -91,6 +90,21 @@ public class OrderItemDAO {
         return items.isEmpty() ? null : items.get(0);
     }
 
+    /**
+     * Locks a specific order item and returns it (without the joined display fields).
+     * Must be called inside a transaction; the row lock is held until it ends.
+     * 
+     * @param orderId The unique identifier of the order
+     * @param productId The unique identifier of the product
+     * @return The locked order item, or null if the item does not exist
+     */
+    public OrderItem lockLine(Long orderId, Long productId) {
+        String sql = "SELECT order_id, product_id, item_qty, unit_price FROM OrderItem " +
+                     "WHERE order_id = ? AND product_id = ? FOR UPDATE";
+        List<OrderItem> items = jdbcTemplate.query(sql, new OrderItemRowMapper(), orderId, productId);
+        return items.isEmpty() ? null : items.get(0);
+    }
+
     /**
      * Inserts a new order item into the database.
      * 
@@ -99,8 +113,40 @@ public class OrderItemDAO {
      */
     public int insert(OrderItem item) {
         String sql = "INSERT INTO OrderItem (order_id, product_id, item_qty, unit_price) VALUES (?, ?, ?, ?)";
-        return jdbcTemplate.update(sql, item.getOrderId(), item.getProductId(), 
-                                   item.getItemQty(), item.getUnitPrice());
+        int rows = jdbcTemplate.update(sql, item.getOrderId(), item.getProductId(), 
+                                       item.getItemQty(), item.getUnitPrice());
+        eventPublisher.publishEvent(new OrderItemChangeEvent(this, item.getOrderId(),
+                                                             List.of(item), List.of()));
+        return rows;
+    }
+
+    /**
+     * Inserts several order items in a single JDBC batch (one round trip).
+     * 
+     * @param items The OrderItem entities to insert
+     * @return Update counts per item as reported by the driver
+     */
+    public int[] insertAll(List<OrderItem> items) {
+        String sql = "INSERT INTO OrderItem (order_id, product_id, item_qty, unit_price) VALUES (?, ?, ?, ?)";
+        int[] rows = jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OrderItem item = items.get(i);
+                ps.setLong(1, item.getOrderId());
+                ps.setLong(2, item.getProductId());
+                ps.setInt(3, item.getItemQty());
+                ps.setBigDecimal(4, item.getUnitPrice());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+        Long orderId = items.stream().map(OrderItem::getOrderId).distinct().count() == 1
+                       ? items.get(0).getOrderId() : null;
+        eventPublisher.publishEvent(new OrderItemChangeEvent(this, orderId, items, List.of()));
+        return rows;
     }
 
     /**
@@ -111,8 +157,10 @@ public class OrderItemDAO {
      */
     public int update(OrderItem item) {
         String sql = "UPDATE OrderItem SET item_qty = ?, unit_price = ? WHERE order_id = ? AND product_id = ?";
-        return jdbcTemplate.update(sql, item.getItemQty(), item.getUnitPrice(),
-                                   item.getOrderId(), item.getProductId());
+        int rows = jdbcTemplate.update(sql, item.getItemQty(), item.getUnitPrice(),
+                                       item.getOrderId(), item.getProductId());
+        publishChange(item.getOrderId());
+        return rows;
     }
 
     /**
@@ -124,7 +172,26 @@ public class OrderItemDAO {
      */
     public int delete(Long orderId, Long productId) {
         String sql = "DELETE FROM OrderItem WHERE order_id = ? AND product_id = ?";
-        return jdbcTemplate.update(sql, orderId, productId);
+        int rows = jdbcTemplate.update(sql, orderId, productId);
+        publishChange(orderId);
+        return rows;
+    }
+
+    /**
+     * Deletes a specific order item that was read (and locked) beforehand, so that listeners
+     * are told which line was removed.
+     * 
+     * @param item The order item to delete, as returned by lockLine
+     * @return Number of rows affected (should be 1 if delete successful)
+     */
+    public int delete(OrderItem item) {
+        String sql = "DELETE FROM OrderItem WHERE order_id = ? AND product_id = ?";
+        int rows = jdbcTemplate.update(sql, item.getOrderId(), item.getProductId());
+        if (rows > 0) {
+            eventPublisher.publishEvent(new OrderItemChangeEvent(this, item.getOrderId(),
+                                                                 List.of(), List.of(item)));
+        }
+        return rows;
     }
 
     /**
@@ -136,7 +203,9 @@ public class OrderItemDAO {
      */
     public int deleteByOrder(Long orderId) {
         String sql = "DELETE FROM OrderItem WHERE order_id = ?";
-        return jdbcTemplate.update(sql, orderId);
+        int rows = jdbcTemplate.update(sql, orderId);
+        publishChange(orderId);
+        return rows;
     }
 
     /**
@@ -151,5 +220,11 @@ public class OrderItemDAO {
         BigDecimal total = jdbcTemplate.queryForObject(sql, BigDecimal.class, orderId);
         return total != null ? total : BigDecimal.ZERO;
     }
-}
 
+    /**
+     * Notifies listeners (caches, dashboard statistics) that lines of an order have changed.
+     */
+    private void publishChange(Long orderId) {
+        eventPublisher.publishEvent(new DataChangeEvent(this, "OrderItem", orderId));
+    }
+}
@@ -0,0 +1,52 @@
+package com.cps510.dao;
+
+/**
+ * Change event for a single Payment row. Carries the order and status the payment has after
+ * the write, so that listeners can tell whether an order gained or lost a paid payment without
+ * re-reading the table. Both are null when the payment was deleted.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class PaymentChangeEvent extends DataChangeEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long orderId;
+    private final String paymentStatus;
+
+    /**
+     * Creates a new payment change event.
+     * 
+     * @param source The DAO that performed the write
+     * @param paymentId Primary key of the modified payment
+     * @param orderId Order the payment belongs to after the write, or null if it was deleted
+     * @param paymentStatus Status of the payment after the write, or null if it was deleted
+     */
+    public PaymentChangeEvent(Object source, Long paymentId, Long orderId, String paymentStatus) {
+        super(source, "Payment", paymentId);
+        this.orderId = orderId;
+        this.paymentStatus = paymentStatus;
+    }
+
+    public Long getPaymentId() {
+        return (Long) getKey();
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    /**
+     * Checks whether the payment was deleted by the write.
+     * 
+     * @return true if the payment no longer exists
+     */
+    public boolean isDeleted() {
+        return orderId == null;
+    }
+}
@@ -1,20 +1,23 @@
 package com.cps510.dao;
 
+import com.cps510.model.Page;
 import com.cps510.model.Payment;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Data Access Object (DAO) for Payment entity.
  * Provides CRUD operations, order-based queries, payment calculations, and search functionality.
  * Uses Spring JDBC for database operations and joins with Order and Customer tables.
+ * List reads of V_PAYMENTS go to MV_PAYMENTS instead when ReportingViewRouter allows it.
  * 
  * @author CPS510 Team
  * @version 1.0
@@ -25,43 +28,78 @@ public class PaymentDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private ReportingViewRouter reportingViewRouter;
+
     /**
      * RowMapper implementation for mapping ResultSet rows to Payment objects.
      * Handles optional fields from joined tables (order_date, customer_name) gracefully.
      */
-    private static final class PaymentRowMapper implements RowMapper<Payment> {
+    static final class PaymentRowMapper extends ColumnIndexRowMapper<Payment> {
+        PaymentRowMapper() {
+            super(new String[]{"payment_id", "order_id", "payment_method", "payment_amount", "payment_status"},
+                  new String[]{"order_date", "customer_name"});
+        }
+
         @Override
-        public Payment mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected Payment mapRow(ResultSet rs, int[] col) throws SQLException {
             Payment payment = new Payment();
-            payment.setPaymentId(rs.getLong("payment_id"));
-            payment.setOrderId(rs.getLong("order_id"));
-            payment.setPaymentMethod(rs.getString("payment_method"));
-            payment.setPaymentAmount(rs.getBigDecimal("payment_amount"));
-            payment.setPaymentStatus(rs.getString("payment_status"));
-            try {
-                payment.setOrderDate(rs.getTimestamp("order_date"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
-            try {
-                payment.setCustomerName(rs.getString("customer_name"));
-            } catch (SQLException e) {
-                // May not be present in all queries
-            }
+            payment.setPaymentId(rs.getLong(col[0]));
+            payment.setOrderId(rs.getLong(col[1]));
+            payment.setPaymentMethod(rs.getString(col[2]));
+            payment.setPaymentAmount(rs.getBigDecimal(col[3]));
+            payment.setPaymentStatus(rs.getString(col[4]));
+            payment.setOrderDate(getTimestamp(rs, col[5]));
+            payment.setCustomerName(getString(rs, col[6]));
             return payment;
         }
     }
 
     /**
      * Retrieves all payments from the database using V_PAYMENTS view, ordered by payment ID (descending).
+     * Reads the materialized view while it lags the tables by at most app.mview.max-lag-ms.
      * 
      * @return List of all Payment entities with order and customer information
      */
     public List<Payment> findAll() {
-        String sql = "SELECT * FROM V_PAYMENTS ORDER BY payment_id DESC";
+        String sql = "SELECT * FROM " + reportingViewRouter.forList(ReportingViewRouter.ReportingView.PAYMENTS) +
+                     " ORDER BY payment_id DESC";
         return jdbcTemplate.query(sql, new PaymentRowMapper());
     }
 
+    /**
+     * Retrieves one page of payments using keyset pagination on payment_id, newest first.
+     * Reads the materialized view while it lags the tables by at most app.mview.max-lag-ms.
+     * 
+     * @param after Cursor of the last payment on the previous page, or null
+     * @param before Cursor of the first payment on the following page (to page backwards), or null
+     * @param pageSize Maximum number of payments to return
+     * @return Page of payments with next/previous cursors
+     */
+    public Page<Payment> findPage(String after, String before, int pageSize) {
+        boolean backward = before != null;
+        String[] key = KeysetCursor.decode(backward ? before : after, 1, 0);
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT payment_id, order_id, payment_method, payment_amount, payment_status, " +
+                                              "order_date, customer_name FROM " +
+                                              reportingViewRouter.forList(ReportingViewRouter.ReportingView.PAYMENTS));
+        if (key != null) {
+            sql.append(backward ? " WHERE payment_id > ?" : " WHERE payment_id < ?");
+            args.add(Long.parseLong(key[0]));
+        }
+        sql.append(backward ? " ORDER BY payment_id" : " ORDER BY payment_id DESC");
+        args.add(pageSize + 1);
+        List<Payment> rows = jdbcTemplate.query("SELECT * FROM (" + sql + ") WHERE ROWNUM <= ?",
+                                                new PaymentRowMapper(), args.toArray());
+        return Page.fromSlice(rows, pageSize, backward, key != null, p -> KeysetCursor.encode(p.getPaymentId()));
+    }
+
     /**
      * Retrieves a payment by its unique ID.
      * 
@@ -87,24 +125,20 @@ public class PaymentDAO {
 
     /**
      * Inserts a new payment into the database.
-     * Uses Oracle sequence (PAYMENT_SEQ) via trigger to auto-generate the ID.
+     * Uses Oracle sequence (PAYMENT_SEQ) to generate the ID: leased in blocks by IdAllocator when enabled,
+     * otherwise assigned by trigger and returned in the same round trip via RETURNING INTO.
      * 
      * @param payment The Payment entity to insert
      * @return The generated payment ID
      */
     public Long insert(Payment payment) {
-        String sql = "INSERT INTO Payment (order_id, payment_method, payment_amount, payment_status) " +
-                     "VALUES (?, ?, ?, ?)";
-        jdbcTemplate.update(sql, payment.getOrderId(), payment.getPaymentMethod(),
-                           payment.getPaymentAmount(), payment.getPaymentStatus());
-        
-        String seqSql = "SELECT PAYMENT_SEQ.CURRVAL FROM dual";
-        try {
-            return jdbcTemplate.queryForObject(seqSql, Long.class);
-        } catch (Exception e) {
-            String maxSql = "SELECT NVL(MAX(payment_id), 0) FROM Payment";
-            return jdbcTemplate.queryForObject(maxSql, Long.class);
-        }
+        String sql = "INSERT INTO Payment (payment_id, order_id, payment_method, payment_amount, payment_status) " +
+                     "VALUES (?, ?, ?, ?, ?)";
+        Long paymentId = idAllocator.insert("PAYMENT_SEQ", sql, "payment_id", payment.getOrderId(),
+                                            payment.getPaymentMethod(), payment.getPaymentAmount(),
+                                            payment.getPaymentStatus());
+        publishChange(paymentId, payment.getOrderId(), payment.getPaymentStatus());
+        return paymentId;
     }
 
     /**
@@ -116,9 +150,11 @@ public class PaymentDAO {
     public int update(Payment payment) {
         String sql = "UPDATE Payment SET order_id = ?, payment_method = ?, payment_amount = ?, " +
                      "payment_status = ? WHERE payment_id = ?";
-        return jdbcTemplate.update(sql, payment.getOrderId(), payment.getPaymentMethod(),
-                                   payment.getPaymentAmount(), payment.getPaymentStatus(),
-                                   payment.getPaymentId());
+        int rows = jdbcTemplate.update(sql, payment.getOrderId(), payment.getPaymentMethod(),
+                                       payment.getPaymentAmount(), payment.getPaymentStatus(),
+                                       payment.getPaymentId());
+        publishChange(payment.getPaymentId(), payment.getOrderId(), payment.getPaymentStatus());
+        return rows;
     }
 
     /**
@@ -129,7 +165,9 @@ public class PaymentDAO {
      */
     public int delete(Long paymentId) {
         String sql = "DELETE FROM Payment WHERE payment_id = ?";
-        return jdbcTemplate.update(sql, paymentId);
+        int rows = jdbcTemplate.update(sql, paymentId);
+        publishChange(paymentId, null, null);
+        return rows;
     }
 
     /**
@@ -167,5 +205,11 @@ public class PaymentDAO {
         String searchPattern = "%" + searchTerm + "%";
         return jdbcTemplate.query(sql, new PaymentRowMapper(), searchPattern, searchPattern, searchPattern, searchPattern, searchPattern);
     }
-}
 
+    /**
+     * Notifies listeners (caches, dashboard statistics, sales analytics) that a payment has changed.
+     */
+    private void publishChange(Long paymentId, Long orderId, String paymentStatus) {
+        eventPublisher.publishEvent(new PaymentChangeEvent(this, paymentId, orderId, paymentStatus));
+    }
+}
@@ -1,13 +1,15 @@
 package com.cps510.dao;
 
+import com.cps510.model.Page;
 import com.cps510.model.Product;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,27 +26,36 @@ public class ProductDAO {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IdAllocator idAllocator;
+
     /**
      * RowMapper implementation for mapping ResultSet rows to Product objects.
      * Handles optional category_name field gracefully for queries that may not include it.
      */
-    private static final class ProductRowMapper implements RowMapper<Product> {
+    static final class ProductRowMapper extends ColumnIndexRowMapper<Product> {
+        ProductRowMapper() {
+            super(new String[]{"product_id", "product_name", "product_size", "product_colour", "product_brand",
+                               "product_price", "product_stock_qty", "category_id"},
+                  new String[]{"category_name"});
+        }
+
         @Override
-        public Product mapRow(ResultSet rs, int rowNum) throws SQLException {
+        protected Product mapRow(ResultSet rs, int[] col) throws SQLException {
             Product product = new Product();
-            product.setProductId(rs.getLong("product_id"));
-            product.setProductName(rs.getString("product_name"));
-            product.setProductSize(rs.getString("product_size"));
-            product.setProductColour(rs.getString("product_colour"));
-            product.setProductBrand(rs.getString("product_brand"));
-            product.setProductPrice(rs.getBigDecimal("product_price"));
-            product.setProductStockQty(rs.getInt("product_stock_qty"));
-            product.setCategoryId(rs.getLong("category_id"));
-            try {
-                product.setCategoryName(rs.getString("category_name"));
-            } catch (SQLException e) {
-                // category_name may not be present in all queries
-            }
+            product.setProductId(rs.getLong(col[0]));
+            product.setProductName(rs.getString(col[1]));
+            product.setProductSize(rs.getString(col[2]));
+            product.setProductColour(rs.getString(col[3]));
+            product.setProductBrand(rs.getString(col[4]));
+            product.setProductPrice(rs.getBigDecimal(col[5]));
+            product.setProductStockQty(rs.getInt(col[6]));
+            product.setCategoryId(rs.getLong(col[7]));
+            // category_name may not be present in all queries
+            product.setCategoryName(getString(rs, col[8]));
             return product;
         }
     }
@@ -63,6 +74,47 @@ public class ProductDAO {
         return jdbcTemplate.query(sql, new ProductRowMapper());
     }
 
+    /**
+     * Retrieves one page of products using keyset pagination on (product_name, product_id).
+     * 
+     * @param after Cursor of the last product on the previous page, or null
+     * @param before Cursor of the first product on the following page (to page backwards), or null
+     * @param pageSize Maximum number of products to return
+     * @return Page of products with next/previous cursors
+     */
+    public Page<Product> findPage(String after, String before, int pageSize) {
+        boolean backward = before != null;
+        String[] key = KeysetCursor.decode(backward ? before : after, 2, 1);
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT p.product_id, p.product_name, p.product_size, p.product_colour, p.product_brand, " +
+                                              "p.product_price, p.product_stock_qty, p.category_id, c.category_name " +
+                                              "FROM Product p JOIN Category_ c ON p.category_id = c.category_id");
+        if (key != null) {
+            sql.append(backward ? " WHERE (p.product_name < ? OR (p.product_name = ? AND p.product_id < ?))"
+                                : " WHERE (p.product_name > ? OR (p.product_name = ? AND p.product_id > ?))");
+            args.add(key[0]);
+            args.add(key[0]);
+            args.add(Long.parseLong(key[1]));
+        }
+        sql.append(backward ? " ORDER BY p.product_name DESC, p.product_id DESC" : " ORDER BY p.product_name, p.product_id");
+        args.add(pageSize + 1);
+        List<Product> rows = jdbcTemplate.query("SELECT * FROM (" + sql + ") WHERE ROWNUM <= ?",
+                                                new ProductRowMapper(), args.toArray());
+        return Page.fromSlice(rows, pageSize, backward, key != null,
+                              p -> KeysetCursor.encode(p.getProductName(), p.getProductId()));
+    }
+
+    /**
+     * Counts all products without loading them.
+     * 
+     * @return Number of rows in the Product table
+     */
+    public long count() {
+        String sql = "SELECT COUNT(*) FROM Product";
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count != null ? count : 0L;
+    }
+
     /**
      * Retrieves a product by its unique ID, including category information.
      * 
@@ -94,25 +146,21 @@ public class ProductDAO {
 
     /**
      * Inserts a new product into the database.
-     * Uses Oracle sequence (PRODUCT_SEQ) via trigger to auto-generate the ID.
+     * Uses Oracle sequence (PRODUCT_SEQ) to generate the ID: leased in blocks by IdAllocator when enabled,
+     * otherwise assigned by trigger and returned in the same round trip via RETURNING INTO.
      * 
      * @param product The Product entity to insert
      * @return The generated product ID
      */
     public Long insert(Product product) {
-        String sql = "INSERT INTO Product (product_name, product_size, product_colour, product_brand, " +
-                     "product_price, product_stock_qty, category_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        jdbcTemplate.update(sql, product.getProductName(), product.getProductSize(), product.getProductColour(),
-                           product.getProductBrand(), product.getProductPrice(), product.getProductStockQty(),
-                           product.getCategoryId());
-        
-        String seqSql = "SELECT PRODUCT_SEQ.CURRVAL FROM dual";
-        try {
-            return jdbcTemplate.queryForObject(seqSql, Long.class);
-        } catch (Exception e) {
-            String maxSql = "SELECT NVL(MAX(product_id), 0) FROM Product";
-            return jdbcTemplate.queryForObject(maxSql, Long.class);
-        }
+        String sql = "INSERT INTO Product (product_id, product_name, product_size, product_colour, product_brand, " +
+                     "product_price, product_stock_qty, category_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        Long productId = idAllocator.insert("PRODUCT_SEQ", sql, "product_id", product.getProductName(),
+                                            product.getProductSize(), product.getProductColour(),
+                                            product.getProductBrand(), product.getProductPrice(),
+                                            product.getProductStockQty(), product.getCategoryId());
+        publishChange(productId);
+        return productId;
     }
 
     /**
@@ -125,10 +173,12 @@ public class ProductDAO {
         String sql = "UPDATE Product SET product_name = ?, product_size = ?, product_colour = ?, " +
                      "product_brand = ?, product_price = ?, product_stock_qty = ?, category_id = ? " +
                      "WHERE product_id = ?";
-        return jdbcTemplate.update(sql, product.getProductName(), product.getProductSize(), 
-                                   product.getProductColour(), product.getProductBrand(), 
-                                   product.getProductPrice(), product.getProductStockQty(),
-                                   product.getCategoryId(), product.getProductId());
+        int rows = jdbcTemplate.update(sql, product.getProductName(), product.getProductSize(), 
+                                       product.getProductColour(), product.getProductBrand(), 
+                                       product.getProductPrice(), product.getProductStockQty(),
+                                       product.getCategoryId(), product.getProductId());
+        publishChange(product.getProductId());
+        return rows;
     }
 
     /**
@@ -139,7 +189,9 @@ public class ProductDAO {
      */
     public int delete(Long productId) {
         String sql = "DELETE FROM Product WHERE product_id = ?";
-        return jdbcTemplate.update(sql, productId);
+        int rows = jdbcTemplate.update(sql, productId);
+        publishChange(productId);
+        return rows;
     }
 
     /**
@@ -161,5 +213,13 @@ public class ProductDAO {
         String searchPattern = "%" + searchTerm + "%";
         return jdbcTemplate.query(sql, new ProductRowMapper(), searchPattern, searchPattern, searchPattern, searchPattern);
     }
-}
 
+    /**
+     * Notifies listeners (caches, search index, dashboard statistics) that a product row has changed.
+     * 
+     * @param productId The unique identifier of the inserted, updated or deleted product
+     */
+    private void publishChange(Long productId) {
+        eventPublisher.publishEvent(new DataChangeEvent(this, "Product", productId));
+    }
+}
@@ -0,0 +1,273 @@
+package com.cps510.dao;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chooses between each reporting view (V_ORDERS_SUMMARY, V_ORDER_LINE_ITEMS, V_PAYMENTS) and
+ * its materialized copy (MV_*) for DAO reads.
+ * The materialized views are refreshed on demand, so they lag the tables by the writes since
+ * their last refresh. The router learns about those writes from the DAO change events and
+ * sends a read to the materialized view only if the lag is acceptable for that read:
+ * - List pages (forList) accept writes up to app.mview.max-lag-ms old
+ * - Reads that must see every committed write (forCurrent) need no write since the last refresh
+ * - Line items of one order (forOrder) need no write to that order's lines, nor to products or
+ *   categories, since the last refresh
+ * After a bulk load (invalidate) nothing is routed until the next refresh. Writes made outside
+ * this application are not seen; the admin page shows Oracle's own staleness for those.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Component
+public class ReportingViewRouter {
+
+    /**
+     * Dirty order IDs tracked per view before falling back to treating the whole view as changed.
+     */
+    private static final int MAX_DIRTY_KEYS = 10000;
+
+    /**
+     * A reporting view with its materialized copy and the tables both are built from.
+     */
+    public enum ReportingView {
+        ORDERS_SUMMARY("V_ORDERS_SUMMARY", "MV_ORDERS_SUMMARY", null, "Order_", "Customer", "Employee"),
+        ORDER_LINE_ITEMS("V_ORDER_LINE_ITEMS", "MV_ORDER_LINE_ITEMS", "OrderItem", "OrderItem", "Product", "Category_"),
+        PAYMENTS("V_PAYMENTS", "MV_PAYMENTS", null, "Payment", "Order_", "Customer");
+
+        private final String viewName;
+        private final String materializedViewName;
+        private final String keyedTable;
+        private final String[] tables;
+
+        ReportingView(String viewName, String materializedViewName, String keyedTable, String... tables) {
+            this.viewName = viewName;
+            this.materializedViewName = materializedViewName;
+            this.keyedTable = keyedTable;
+            this.tables = tables;
+        }
+
+        public String getViewName() {
+            return viewName;
+        }
+
+        public String getMaterializedViewName() {
+            return materializedViewName;
+        }
+
+        public String[] getTables() {
+            return tables.clone();
+        }
+    }
+
+    @Value("${app.mview.max-lag-ms:120000}")
+    private long maxLagMillis;
+
+    private final Map<ReportingView, State> states = new LinkedHashMap<>();
+    private final AtomicLong materializedReads = new AtomicLong();
+    private final AtomicLong viewReads = new AtomicLong();
+
+    public ReportingViewRouter() {
+        for (ReportingView view : ReportingView.values()) {
+            states.put(view, new State());
+        }
+    }
+
+    /**
+     * Relation for a list page read, which may lag the tables by up to app.mview.max-lag-ms.
+     * 
+     * @param view The reporting view
+     * @return Name of the materialized view or of the plain view
+     */
+    public String forList(ReportingView view) {
+        return choose(view, states.get(view).isWithinLag(System.nanoTime(), TimeUnit.MILLISECONDS.toNanos(maxLagMillis)));
+    }
+
+    /**
+     * Relation for a read that must include every write made through the DAOs.
+     * 
+     * @param view The reporting view
+     * @return Name of the materialized view or of the plain view
+     */
+    public String forCurrent(ReportingView view) {
+        return choose(view, states.get(view).isCurrent());
+    }
+
+    /**
+     * Relation for reading the line items of one order, current for that order.
+     * 
+     * @param orderId The order whose lines are read
+     * @return Name of MV_ORDER_LINE_ITEMS or V_ORDER_LINE_ITEMS
+     */
+    public String forOrder(Long orderId) {
+        return choose(ReportingView.ORDER_LINE_ITEMS, states.get(ReportingView.ORDER_LINE_ITEMS).isCurrent(orderId));
+    }
+
+    /**
+     * Records a committed write against every view built from the modified table.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        long now = System.nanoTime();
+        for (Map.Entry<ReportingView, State> entry : states.entrySet()) {
+            ReportingView view = entry.getKey();
+            if (event.affects(view.tables)) {
+                Object key = view.keyedTable != null && event.affects(view.keyedTable) ? event.getKey() : null;
+                entry.getValue().written(now, key instanceof Long ? (Long) key : null);
+            }
+        }
+    }
+
+    /**
+     * Records whether a materialized view exists; reads go to the plain view while it does not.
+     * 
+     * @param view The reporting view
+     * @param present Whether its materialized view exists
+     */
+    public void setPresent(ReportingView view, boolean present) {
+        states.get(view).setPresent(present);
+    }
+
+    /**
+     * Records a successful refresh. Writes seen before the refresh started are now included.
+     * 
+     * @param view The reporting view
+     * @param startedAt System.nanoTime() taken before the refresh started
+     */
+    public void refreshed(ReportingView view, long startedAt) {
+        states.get(view).refreshed(startedAt);
+    }
+
+    /**
+     * Stops routing reads to any materialized view until its next refresh, after writes that
+     * bypass the DAOs (sample data, bulk loads).
+     */
+    public void invalidate() {
+        long now = System.nanoTime();
+        states.values().forEach(state -> state.invalidate(now));
+    }
+
+    /**
+     * Describes how far a materialized view lags the writes seen by the application.
+     * 
+     * @param view The reporting view
+     * @return "absent", "fresh", "invalid until refreshed" or the age of the oldest unrefreshed write
+     */
+    public String describe(ReportingView view) {
+        return states.get(view).describe(System.nanoTime());
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    /**
+     * Returns the routing counters, for the admin page.
+     * 
+     * @return Ordered map of metric name to value
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mview.reads.materialized", materializedReads.get());
+        stats.put("mview.reads.view", viewReads.get());
+        return stats;
+    }
+
+    private String choose(ReportingView view, boolean materialized) {
+        if (materialized) {
+            materializedReads.incrementAndGet();
+            return view.materializedViewName;
+        }
+        viewReads.incrementAndGet();
+        return view.viewName;
+    }
+
+    /**
+     * Write history of one view since its last refresh, in System.nanoTime() units (0 = none).
+     * A view starts out invalid: it may have gone stale before the application started.
+     */
+    private static final class State {
+        private volatile boolean present;
+        private boolean invalid = true;
+        private long invalidatedAt = System.nanoTime();
+        private long oldestWrite;
+        private long latestWrite;
+        private long latestUnkeyedWrite;
+        private final Map<Long, Long> dirtyKeys = new HashMap<>();
+
+        synchronized void setPresent(boolean present) {
+            if (this.present && !present) {
+                oldestWrite = latestWrite = latestUnkeyedWrite = 0;
+                dirtyKeys.clear();
+                invalidate(System.nanoTime());
+            }
+            this.present = present;
+        }
+
+        synchronized void written(long now, Long key) {
+            if (oldestWrite == 0) {
+                oldestWrite = now;
+            }
+            latestWrite = now;
+            if (key != null && dirtyKeys.size() < MAX_DIRTY_KEYS) {
+                dirtyKeys.put(key, now);
+            } else {
+                latestUnkeyedWrite = now;
+            }
+        }
+
+        synchronized void invalidate(long now) {
+            invalid = true;
+            invalidatedAt = now;
+        }
+
+        synchronized void refreshed(long startedAt) {
+            if (invalidatedAt - startedAt < 0) {
+                invalid = false;
+            }
+            if (latestUnkeyedWrite - startedAt < 0) {
+                latestUnkeyedWrite = 0;
+            }
+            dirtyKeys.values().removeIf(writtenAt -> writtenAt - startedAt < 0);
+            if (latestWrite - startedAt < 0) {
+                oldestWrite = latestWrite = 0;
+            } else if (oldestWrite - startedAt < 0) {
+                // The writes left were seen during the refresh; count their lag from its start
+                oldestWrite = startedAt;
+            }
+        }
+
+        synchronized boolean isWithinLag(long now, long maxLagNanos) {
+            return present && !invalid && (oldestWrite == 0 || now - oldestWrite <= maxLagNanos);
+        }
+
+        synchronized boolean isCurrent() {
+            return present && !invalid && oldestWrite == 0;
+        }
+
+        synchronized boolean isCurrent(Long key) {
+            return present && !invalid && latestUnkeyedWrite == 0 && !dirtyKeys.containsKey(key);
+        }
+
+        synchronized String describe(long now) {
+            if (!present) {
+                return "absent";
+            }
+            if (invalid) {
+                return "invalid until refreshed";
+            }
+            if (oldestWrite == 0) {
+                return "fresh";
+            }
+            return "stale for " + TimeUnit.NANOSECONDS.toSeconds(now - oldestWrite) + " s" +
+                   (dirtyKeys.isEmpty() ? "" : " (" + dirtyKeys.size() + " orders changed)");
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.cps510.dao;
+
+import com.cps510.model.Order;
+import com.cps510.model.ProductSales;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Data Access Object (DAO) for the queries behind the A5 sales reports (sql/a5.sql Q1 to Q4)
+ * and the sales snapshot.
+ * Read-only: loads the aggregates the sales analytics service is (re)built from, the order rows
+ * it needs when an order changes, and the order lines the sales snapshot is loaded from. Most
+ * queries here scan their tables, so the services run them on a rebuild or reload, not per report.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@Repository
+public class SalesAnalyticsDAO {
+
+    /** Oracle accepts at most 1000 expressions in an IN list. */
+    private static final int MAX_IN_LIST = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.snapshot.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Receives the order lines streamed by forEachSalesLine, one call per line.
+     */
+    @FunctionalInterface
+    public interface SalesLineHandler {
+        void line(LocalDate orderDate, String employeeName, String productName, String productBrand,
+                  String categoryName, int itemQty, BigDecimal unitPrice);
+    }
+
+    /**
+     * RowMapper for the order columns shown by the unpaid orders report (Q2).
+     */
+    private static final class OrderSummaryRowMapper extends ColumnIndexRowMapper<Order> {
+        OrderSummaryRowMapper() {
+            super(new String[]{"order_id", "order_date", "total_amount"}, new String[0]);
+        }
+
+        @Override
+        protected Order mapRow(ResultSet rs, int[] col) throws SQLException {
+            Order order = new Order();
+            order.setOrderId(rs.getLong(col[0]));
+            order.setOrderDate(rs.getTimestamp(col[1]));
+            order.setTotalAmount(rs.getBigDecimal(col[2]));
+            return order;
+        }
+    }
+
+    /**
+     * Retrieves every product with the revenue and number of its order lines.
+     * Products that were never ordered have revenue 0 and no lines.
+     * 
+     * @return One entry per product, in no particular order
+     */
+    public List<ProductSales> findProductSales() {
+        String sql = "SELECT p.product_id, p.product_name, p.category_id, " +
+                     "NVL(SUM(oi.item_qty * oi.unit_price), 0) AS revenue, COUNT(oi.product_id) AS line_count " +
+                     "FROM Product p LEFT JOIN OrderItem oi ON oi.product_id = p.product_id " +
+                     "GROUP BY p.product_id, p.product_name, p.category_id";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new ProductSales(
+            rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getBigDecimal(4), rs.getLong(5)));
+    }
+
+    /**
+     * Retrieves the name and category of every product, without touching OrderItem.
+     * Used to refresh product names and categories after a product or category write.
+     * 
+     * @return One entry per product with revenue 0 and no lines
+     */
+    public List<ProductSales> findProducts() {
+        String sql = "SELECT product_id, product_name, category_id FROM Product";
+        return jdbcTemplate.query(sql, (rs, rowNum) -> new ProductSales(
+            rs.getLong(1), rs.getString(2), rs.getLong(3), BigDecimal.ZERO, 0));
+    }
+
+    /**
+     * Retrieves the order of every payment with status 'Paid'.
+     * 
+     * @return Map of payment ID to order ID
+     */
+    public Map<Long, Long> findPaidPayments() {
+        String sql = "SELECT payment_id, order_id FROM Payment WHERE payment_status = 'Paid'";
+        Map<Long, Long> paid = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            paid.put(rs.getLong(1), rs.getLong(2));
+        });
+        return paid;
+    }
+
+    /**
+     * Retrieves the orders that have no payment with status 'Paid' (Q2).
+     * 
+     * @return Orders with ID, date and total only, in no particular order
+     */
+    public List<Order> findOrdersWithoutPaidPayment() {
+        String sql = "SELECT o.order_id, o.order_date, o.total_amount FROM Order_ o " +
+                     "WHERE NOT EXISTS (SELECT 1 FROM Payment p " +
+                     "WHERE p.order_id = o.order_id AND p.payment_status = 'Paid')";
+        return jdbcTemplate.query(sql, new OrderSummaryRowMapper());
+    }
+
+    /**
+     * Retrieves the ID, date and total of the given orders, in one query per 1000 IDs.
+     * 
+     * @param orderIds The order IDs to look up
+     * @return The orders that exist, in no particular order
+     */
+    public List<Order> findOrderSummaries(Collection<Long> orderIds) {
+        List<Long> ids = new ArrayList<>(orderIds);
+        List<Order> orders = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+            String placeholders = chunk.stream().map(id -> "?").collect(Collectors.joining(", "));
+            String sql = "SELECT order_id, order_date, total_amount FROM Order_ " +
+                         "WHERE order_id IN (" + placeholders + ")";
+            orders.addAll(jdbcTemplate.query(sql, new OrderSummaryRowMapper(), chunk.toArray()));
+        }
+        return orders;
+    }
+
+    /**
+     * Streams every order line with its order date, employee, product, brand and category,
+     * ordered by order date, in a single statement (so the lines are read-consistent).
+     * 
+     * @param handler Called once per order line
+     * @return Number of lines streamed
+     */
+    public long forEachSalesLine(SalesLineHandler handler) {
+        String sql = "SELECT o.order_date, e.employee_name, p.product_name, p.product_brand, c.category_name, " +
+                     "oi.item_qty, oi.unit_price " +
+                     "FROM OrderItem oi JOIN Order_ o ON o.order_id = oi.order_id " +
+                     "JOIN Employee e ON e.employee_id = o.employee_id " +
+                     "JOIN Product p ON p.product_id = oi.product_id " +
+                     "JOIN Category_ c ON c.category_id = p.category_id " +
+                     "ORDER BY o.order_date";
+        PreparedStatementCreator creator = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        };
+        Long lines = jdbcTemplate.query(creator, rs -> {
+            long count = 0;
+            while (rs.next()) {
+                handler.line(rs.getTimestamp(1).toLocalDateTime().toLocalDate(), rs.getString(2), rs.getString(3),
+                             rs.getString(4), rs.getString(5), rs.getInt(6), rs.getBigDecimal(7));
+                count++;
+            }
+            return count;
+        });
+        return lines != null ? lines : 0L;
+    }
+}
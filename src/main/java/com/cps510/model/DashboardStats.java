@@ -0,0 +1,61 @@
+package com.cps510.model;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Model class representing a snapshot of the dashboard statistics.
+ * Not mapped to a table; computed from aggregate queries by the dashboard service.
+ * Snapshots are immutable once built and carry the time they were computed.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class DashboardStats {
+    private final long customerCount;
+    private final long productCount;
+    private final long orderCount;
+    private final long openOrderCount;
+    private final BigDecimal unpaidTotal;
+    private final BigDecimal todayRevenue;
+    private final Date computedAt;
+
+    public DashboardStats(long customerCount, long productCount, long orderCount, long openOrderCount,
+                          BigDecimal unpaidTotal, BigDecimal todayRevenue, Date computedAt) {
+        this.customerCount = customerCount;
+        this.productCount = productCount;
+        this.orderCount = orderCount;
+        this.openOrderCount = openOrderCount;
+        this.unpaidTotal = unpaidTotal;
+        this.todayRevenue = todayRevenue;
+        this.computedAt = computedAt;
+    }
+
+    public long getCustomerCount() {
+        return customerCount;
+    }
+
+    public long getProductCount() {
+        return productCount;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public long getOpenOrderCount() {
+        return openOrderCount;
+    }
+
+    public BigDecimal getUnpaidTotal() {
+        return unpaidTotal;
+    }
+
+    public BigDecimal getTodayRevenue() {
+        return todayRevenue;
+    }
+
+    public Date getComputedAt() {
+        return computedAt;
+    }
+}
@@ -0,0 +1,88 @@
+package com.cps510.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Model class representing one page of a keyset (seek) paginated list.
+ * Holds the page items plus opaque cursors for the next and previous pages.
+ * A null cursor means there is no page in that direction.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class Page<T> {
+    public static final int DEFAULT_SIZE = 25;
+    public static final int MAX_SIZE = 200;
+
+    private final List<T> items;
+    private final int pageSize;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    public Page(List<T> items, int pageSize, String nextCursor, String previousCursor) {
+        this.items = items;
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    /**
+     * Builds a page from a slice fetched with one extra row (pageSize + 1).
+     * The extra row only signals that more rows exist in the fetch direction and is dropped.
+     * 
+     * @param rows Rows as fetched, in fetch order
+     * @param pageSize Requested page size
+     * @param backward true if the rows were fetched before a cursor (in reverse display order)
+     * @param fromCursor true if the fetch started from a cursor rather than the first page
+     * @param cursorOf Function that encodes the sort key of a row as a cursor
+     * @return Page with items in display order and next/previous cursors
+     */
+    public static <T> Page<T> fromSlice(List<T> rows, int pageSize, boolean backward, boolean fromCursor,
+                                        Function<T, String> cursorOf) {
+        boolean more = rows.size() > pageSize;
+        List<T> items = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+        if (backward) {
+            Collections.reverse(items);
+        }
+        boolean hasNext = backward || more;
+        boolean hasPrevious = backward ? more : fromCursor;
+        if (items.isEmpty()) {
+            return new Page<>(items, pageSize, null, null);
+        }
+        String next = hasNext ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        String previous = hasPrevious ? cursorOf.apply(items.get(0)) : null;
+        return new Page<>(items, pageSize, next, previous);
+    }
+
+    /**
+     * Clamps a requested page size to the allowed range.
+     * 
+     * @param requested Page size requested by the client, may be null
+     * @return Page size between 1 and MAX_SIZE, DEFAULT_SIZE if none requested
+     */
+    public static int clampSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(requested, MAX_SIZE);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+}
@@ -0,0 +1,46 @@
+package com.cps510.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Model class representing a product with the revenue and number of its order lines.
+ * Not mapped to a table; loaded by SalesAnalyticsDAO to (re)build the sales aggregates.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class ProductSales {
+    private final Long productId;
+    private final String productName;
+    private final Long categoryId;
+    private final BigDecimal revenue;
+    private final long lineCount;
+
+    public ProductSales(Long productId, String productName, Long categoryId, BigDecimal revenue, long lineCount) {
+        this.productId = productId;
+        this.productName = productName;
+        this.categoryId = categoryId;
+        this.revenue = revenue;
+        this.lineCount = lineCount;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public long getLineCount() {
+        return lineCount;
+    }
+}
@@ -0,0 +1,42 @@
+package com.cps510.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Model class representing one group of an ad-hoc sales query: the value it is grouped by
+ * (a product, brand, category, employee or day) with the revenue, quantity and number of the
+ * order lines in it.
+ * Not mapped to a table; computed from the in-memory sales snapshot.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class SalesSlice {
+    private final String key;
+    private final BigDecimal revenue;
+    private final long quantity;
+    private final long lines;
+
+    public SalesSlice(String key, BigDecimal revenue, long quantity, long lines) {
+        this.key = key;
+        this.revenue = revenue;
+        this.quantity = quantity;
+        this.lines = lines;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+}
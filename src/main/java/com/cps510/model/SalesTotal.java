@@ -0,0 +1,29 @@
+package com.cps510.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Model class representing one row of a revenue report: a product or category name and the
+ * revenue (SUM(item_qty * unit_price)) of its order lines.
+ * Not mapped to a table; served by the sales analytics service.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class SalesTotal {
+    private final String name;
+    private final BigDecimal revenue;
+
+    public SalesTotal(String name, BigDecimal revenue) {
+        this.name = name;
+        this.revenue = revenue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+}
@@ -0,0 +1,74 @@
+package com.cps510.model;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A statement that ran longer than the slow-query threshold.
+ * Holds the SQL text with its bind values, the rows it returned or affected, the DAO method
+ * that issued it and the execution plan captured for its SQL shape.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+public class SlowQuery {
+
+    private final Date executedAt;
+    private final double elapsedMillis;
+    private final String sql;
+    private final String binds;
+    private final long rows;
+    private final String caller;
+    private final AtomicReference<String> plan;
+
+    /**
+     * Creates a new slow query entry.
+     * 
+     * @param executedAt When the statement finished
+     * @param elapsedMillis Execution time, including fetching the rows of a query
+     * @param sql SQL text as prepared
+     * @param binds Bind values in parameter order, formatted for display
+     * @param rows Rows fetched by a query or affected by an update; -1 if unknown
+     * @param caller Class and method that issued the statement, e.g. "OrderDAO.findPage"
+     * @param plan Execution plan of the SQL shape, shared by all entries of that shape and
+     *             filled in once it has been captured
+     */
+    public SlowQuery(Date executedAt, double elapsedMillis, String sql, String binds, long rows, String caller,
+                     AtomicReference<String> plan) {
+        this.executedAt = executedAt;
+        this.elapsedMillis = elapsedMillis;
+        this.sql = sql;
+        this.binds = binds;
+        this.rows = rows;
+        this.caller = caller;
+        this.plan = plan;
+    }
+
+    public Date getExecutedAt() {
+        return executedAt;
+    }
+
+    public double getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getBinds() {
+        return binds;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    public String getPlan() {
+        return plan.get();
+    }
+}
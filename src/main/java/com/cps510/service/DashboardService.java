@@ -0,0 +1,120 @@
+package com.cps510.service;
+
+import com.cps510.dao.CustomerDAO;
+import com.cps510.dao.DataChangeEvent;
+import com.cps510.dao.OrderDAO;
+import com.cps510.dao.ProductDAO;
+import com.cps510.model.DashboardStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service for the home page dashboard statistics:
+ * - Computes counts and totals with aggregate queries instead of loading rows
+ * - Keeps the last snapshot in memory and refreshes it in the background
+ * - Marks the snapshot stale when a DAO writes to a table it depends on
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardService.class);
+
+    @Autowired
+    private CustomerDAO customerDAO;
+
+    @Autowired
+    private ProductDAO productDAO;
+
+    @Autowired
+    private OrderDAO orderDAO;
+
+    private final AtomicReference<DashboardStats> snapshot = new AtomicReference<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile boolean stale = true;
+
+    /**
+     * Returns the current dashboard statistics.
+     * A fresh snapshot is returned as-is. A stale snapshot is recomputed by one caller
+     * while concurrent callers keep getting the previous snapshot.
+     */
+    public DashboardStats getStats() {
+        DashboardStats current = snapshot.get();
+        if (current != null && !stale) {
+            return current;
+        }
+        if (current != null) {
+            if (!refreshLock.tryLock()) {
+                return current;
+            }
+        } else {
+            refreshLock.lock();
+        }
+        try {
+            if (snapshot.get() == null || stale) {
+                refresh();
+            }
+            return snapshot.get();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Periodically recomputes the snapshot so that time-based tiles (today's revenue)
+     * stay current even without writes.
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.refresh-interval-ms:60000}",
+               initialDelayString = "${app.dashboard.refresh-interval-ms:60000}")
+    public void refreshInBackground() {
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Background dashboard refresh failed: {}", e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates the snapshot when one of the tables it summarizes changes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (event.affects("Customer", "Product", "Order_", "Payment")) {
+            stale = true;
+        }
+    }
+
+    private void refresh() {
+        // Cleared before querying so writes that land mid-refresh mark it stale again
+        stale = false;
+        try {
+            Date startOfToday = Date.from(LocalDate.now().atStartOfDay(ZoneId.systemDefault()).toInstant());
+            long customerCount = customerDAO.count();
+            long productCount = productDAO.count();
+            long orderCount = orderDAO.count();
+            long openOrderCount = orderDAO.countByStatus("Pending");
+            BigDecimal unpaidTotal = orderDAO.getOutstandingAmount();
+            BigDecimal todayRevenue = orderDAO.getRevenueSince(startOfToday);
+            snapshot.set(new DashboardStats(customerCount, productCount, orderCount, openOrderCount,
+                                            unpaidTotal, todayRevenue, new Date()));
+        } catch (RuntimeException e) {
+            stale = true;
+            throw e;
+        }
+    }
+}
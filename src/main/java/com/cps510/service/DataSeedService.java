@@ -0,0 +1,319 @@
+package com.cps510.service;
+
+import com.cps510.dao.DataChangeEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Service for seeding the schema with a generated data set at scale:
+ * - Sized by the number of orders; customers, products and order lines scale with it
+ * - Deterministic: the same scale on the same starting data produces the same rows
+ * - Appends after the existing rows (IDs continue from the current maximum), so it can
+ *   follow Populate Tables or run several times
+ * - Inserts in JDBC batches with periodic commits, then syncs the ID sequences
+ * Used by Admin > Seed Data, the "embedded" profile and the benchmarks.
+ */
+@Service
+public class DataSeedService {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int EMPLOYEES = 20;
+
+    private static final String[] CATEGORIES = {"Men's Wear", "Women's Wear", "Accessories", "Footwear", "Outerwear"};
+    private static final String[] PRODUCT_NAMES = {"Jeans", "Dress", "Belt", "Socks", "Jacket", "Shirt", "Sweater",
+                                                   "Skirt", "Scarf", "Boots", "Sneakers", "Hoodie", "Blazer", "Shorts"};
+    private static final String[] COLOURS = {"Blue", "Red", "Brown", "White", "Black", "Green", "Grey", "Navy"};
+    private static final String[] BRANDS = {"Levis", "Zara", "Fossil", "Hanes", "Gap", "Uniqlo", "Nike", "Roots"};
+    private static final String[] SIZES = {"XS", "S", "M", "L", "XL"};
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Mark", "Alice", "Bob", "Priya", "Wei", "Omar",
+                                                 "Sofia", "Liam", "Emma", "Noah", "Ava", "Lucas", "Mia"};
+    private static final String[] LAST_NAMES = {"Doe", "Smith", "Chan", "Johnson", "Lee", "Patel", "Nguyen",
+                                                "Khan", "Garcia", "Brown", "Wilson", "Martin", "Singh", "Tremblay"};
+    private static final String[] PAYMENT_METHODS = {"Cash", "Debit", "Credit"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaService schemaService;
+
+    @Autowired
+    private MaterializedViewService materializedViewService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Number of customers seeded alongside the given number of orders.
+     */
+    public static int customersFor(int orders) {
+        return Math.max(100, orders / 10);
+    }
+
+    /**
+     * Number of products seeded alongside the given number of orders.
+     */
+    public static int productsFor(int orders) {
+        return Math.max(100, orders / 100);
+    }
+
+    /**
+     * Adds a generated data set of the given size: new customers, products and orders with
+     * 1-4 lines each, 70% paid in full, 10% with a pending payment and 20% unpaid, dated
+     * over the last year. Categories and employees are added only up to a base set.
+     * 
+     * @param orders Number of orders to add
+     * @return Summary of the rows inserted, or an error message
+     */
+    public String seed(int orders) {
+        if (orders <= 0) {
+            return "Error seeding tables: number of orders must be positive.";
+        }
+        long start = System.nanoTime();
+        try (Connection conn = jdbcTemplate.getDataSource().getConnection()) {
+            conn.setAutoCommit(false);
+            SeedRun run = new SeedRun(conn, new Random(42));
+            try {
+                run.seedReferenceData(customersFor(orders), productsFor(orders));
+                run.seedOrders(orders);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                if (run.committedOrders == 0) {
+                    throw e;
+                }
+                // Batches are committed as they go, so rows with explicit IDs are in the tables even
+                // though a later batch failed: sequences, caches and views must still catch up with them
+                SQLException failure = new SQLException(e.getMessage() + " (the first " + run.committedOrders +
+                                                        " orders were already committed and are kept)", e);
+                try {
+                    afterLoad();
+                } catch (SQLException | RuntimeException afterLoadFailure) {
+                    // Report the failure that stopped the seed, not this follow-on one
+                    failure.addSuppressed(afterLoadFailure);
+                }
+                throw failure;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            afterLoad();
+            return "Seeded " + orders + " orders (" + run.orderLines + " lines, " + run.payments + " payments), " +
+                   run.customerIds.size() + " customers and " + run.productIds.size() + " products in " +
+                   (System.nanoTime() - start) / 1_000_000 + " ms.";
+        } catch (Exception e) {
+            return "Error seeding tables: " + e.getMessage();
+        }
+    }
+
+    private void afterLoad() throws SQLException {
+        schemaService.syncSequences();
+        for (String table : new String[]{"Category_", "Employee", "Customer", "Product", "Order_", "OrderItem", "Payment"}) {
+            eventPublisher.publishEvent(new DataChangeEvent(this, table));
+        }
+        materializedViewService.refreshAfterLoad();
+    }
+
+    /**
+     * State of a single seeding run on one connection.
+     */
+    private static final class SeedRun {
+        private final Connection conn;
+        private final Random random;
+        private final List<Long> categoryIds = new ArrayList<>();
+        private final List<Long> employeeIds = new ArrayList<>();
+        private final List<Long> customerIds = new ArrayList<>();
+        private final List<Long> productIds = new ArrayList<>();
+        private final Map<Long, BigDecimal> prices = new HashMap<>();
+        private long orderLines;
+        private long payments;
+        private int committedOrders;
+
+        SeedRun(Connection conn, Random random) {
+            this.conn = conn;
+            this.random = random;
+        }
+
+        void seedReferenceData(int customers, int products) throws SQLException {
+            categoryIds.addAll(ids("SELECT category_id FROM Category_"));
+            if (categoryIds.isEmpty()) {
+                try (PreparedStatement ps = conn.prepareStatement("INSERT INTO Category_ (category_id, category_name) VALUES (?, ?)")) {
+                    for (int i = 0; i < CATEGORIES.length; i++) {
+                        ps.setLong(1, i + 1);
+                        ps.setString(2, CATEGORIES[i]);
+                        ps.addBatch();
+                        categoryIds.add((long) i + 1);
+                    }
+                    ps.executeBatch();
+                }
+            }
+            employeeIds.addAll(ids("SELECT employee_id FROM Employee"));
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Employee (employee_id, employee_name, employee_email, employee_phone, employee_role) VALUES (?, ?, ?, ?, ?)")) {
+                long id = maxId("Employee", "employee_id");
+                while (employeeIds.size() < EMPLOYEES) {
+                    id++;
+                    ps.setLong(1, id);
+                    ps.setString(2, personName());
+                    ps.setString(3, "employee" + id + "@example.com");
+                    ps.setString(4, phone());
+                    ps.setString(5, employeeIds.size() < 3 ? "Manager" : "Cashier");
+                    ps.addBatch();
+                    employeeIds.add(id);
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Customer (customer_id, customer_name, customer_email, customer_phone) VALUES (?, ?, ?, ?)")) {
+                long id = maxId("Customer", "customer_id");
+                for (int row = 1; row <= customers; row++) {
+                    id++;
+                    ps.setLong(1, id);
+                    ps.setString(2, personName());
+                    ps.setString(3, "customer" + id + "@example.com");
+                    ps.setString(4, phone());
+                    addBatch(ps, row);
+                    customerIds.add(id);
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO Product (product_id, product_name, product_size, product_colour, product_brand, " +
+                    "product_price, product_stock_qty, category_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                long id = maxId("Product", "product_id");
+                for (int row = 1; row <= products; row++) {
+                    id++;
+                    String colour = pick(COLOURS);
+                    BigDecimal price = BigDecimal.valueOf(499 + random.nextInt(19500), 2);
+                    ps.setLong(1, id);
+                    ps.setString(2, colour + " " + pick(PRODUCT_NAMES) + " " + id);
+                    ps.setString(3, pick(SIZES));
+                    ps.setString(4, colour);
+                    ps.setString(5, pick(BRANDS));
+                    ps.setBigDecimal(6, price);
+                    ps.setInt(7, random.nextInt(500));
+                    ps.setLong(8, categoryIds.get(random.nextInt(categoryIds.size())));
+                    addBatch(ps, row);
+                    productIds.add(id);
+                    prices.put(id, price);
+                }
+                ps.executeBatch();
+            }
+        }
+
+        void seedOrders(int orders) throws SQLException {
+            LocalDate today = LocalDate.now();
+            long orderId = maxId("Order_", "order_id");
+            long paymentId = maxId("Payment", "payment_id");
+            int products = productIds.size();
+            try (PreparedStatement orderPs = conn.prepareStatement(
+                     "INSERT INTO Order_ (order_id, order_date, total_amount, order_status, customer_id, employee_id) VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement itemPs = conn.prepareStatement(
+                     "INSERT INTO OrderItem (order_id, product_id, item_qty, unit_price) VALUES (?, ?, ?, ?)");
+                 PreparedStatement paymentPs = conn.prepareStatement(
+                     "INSERT INTO Payment (payment_id, order_id, payment_method, payment_amount, payment_status) VALUES (?, ?, ?, ?, ?)")) {
+                for (int row = 1; row <= orders; row++) {
+                    orderId++;
+                    // 1-4 distinct products per order
+                    int lines = 1 + random.nextInt(4);
+                    int firstProduct = random.nextInt(products);
+                    BigDecimal total = BigDecimal.ZERO;
+                    for (int line = 0; line < lines; line++) {
+                        long productId = productIds.get((firstProduct + line * 7) % products);
+                        int qty = 1 + random.nextInt(3);
+                        itemPs.setLong(1, orderId);
+                        itemPs.setLong(2, productId);
+                        itemPs.setInt(3, qty);
+                        itemPs.setBigDecimal(4, prices.get(productId));
+                        itemPs.addBatch();
+                        orderLines++;
+                        total = total.add(prices.get(productId).multiply(BigDecimal.valueOf(qty)));
+                    }
+                    // 70% paid in full, 10% with a pending payment, 20% unpaid
+                    int paymentRoll = random.nextInt(10);
+                    if (paymentRoll < 8) {
+                        paymentId++;
+                        payments++;
+                        paymentPs.setLong(1, paymentId);
+                        paymentPs.setLong(2, orderId);
+                        paymentPs.setString(3, pick(PAYMENT_METHODS));
+                        paymentPs.setBigDecimal(4, total);
+                        paymentPs.setString(5, paymentRoll < 7 ? "Paid" : "Pending");
+                        paymentPs.addBatch();
+                    }
+                    orderPs.setLong(1, orderId);
+                    orderPs.setDate(2, Date.valueOf(today.minusDays(random.nextInt(365))));
+                    orderPs.setBigDecimal(3, total);
+                    orderPs.setString(4, paymentRoll < 7 ? "Completed" : "Pending");
+                    orderPs.setLong(5, customerIds.get(random.nextInt(customerIds.size())));
+                    orderPs.setLong(6, employeeIds.get(random.nextInt(employeeIds.size())));
+                    orderPs.addBatch();
+                    if (row % BATCH_SIZE == 0) {
+                        // Parents before children to satisfy foreign keys
+                        orderPs.executeBatch();
+                        itemPs.executeBatch();
+                        paymentPs.executeBatch();
+                        conn.commit();
+                        committedOrders = row;
+                    }
+                }
+                orderPs.executeBatch();
+                itemPs.executeBatch();
+                paymentPs.executeBatch();
+            }
+        }
+
+        private List<Long> ids(String sql) throws SQLException {
+            List<Long> ids = new ArrayList<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            return ids;
+        }
+
+        private long maxId(String table, String column) throws SQLException {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT NVL(MAX(" + column + "),0) FROM " + table)) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+
+        private void addBatch(PreparedStatement ps, int row) throws SQLException {
+            ps.addBatch();
+            if (row % BATCH_SIZE == 0) {
+                ps.executeBatch();
+            }
+        }
+
+        private String personName() {
+            return pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+        }
+
+        private String phone() {
+            return String.format("416-555-%04d", random.nextInt(10000));
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.cps510.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service for streaming data exports:
+ * - Orders (V_ORDERS_SUMMARY), order line items (V_ORDER_LINE_ITEMS) and payments (V_PAYMENTS)
+ * - CSV or newline-delimited JSON output
+ * - Optional order date range and status filters
+ * Rows are written straight from a forward-only ResultSet to the output stream,
+ * so heap use stays bounded regardless of the number of rows exported.
+ */
+@Service
+public class ExportService {
+
+    /**
+     * Exportable datasets and the SQL used to read them.
+     */
+    public enum Dataset {
+        ORDERS("orders",
+               "SELECT v.order_id, v.order_date, v.order_status, v.total_amount, v.customer_name, v.employee_name " +
+               "FROM V_ORDERS_SUMMARY v",
+               "v.order_date", "v.order_status", "v.order_id"),
+        ORDER_ITEMS("order-items",
+                    "SELECT v.order_id, v.product_id, v.product_name, v.product_brand, v.product_size, v.product_colour, " +
+                    "v.category_name, v.item_qty, v.unit_price, v.line_total " +
+                    "FROM V_ORDER_LINE_ITEMS v JOIN Order_ o ON o.order_id = v.order_id",
+                    "o.order_date", "o.order_status", "v.order_id, v.product_id"),
+        PAYMENTS("payments",
+                 "SELECT v.payment_id, v.order_id, v.payment_method, v.payment_amount, v.payment_status, v.order_date, v.customer_name " +
+                 "FROM V_PAYMENTS v",
+                 "v.order_date", "v.payment_status", "v.payment_id");
+
+        private final String name;
+        private final String select;
+        private final String dateColumn;
+        private final String statusColumn;
+        private final String orderBy;
+
+        Dataset(String name, String select, String dateColumn, String statusColumn, String orderBy) {
+            this.name = name;
+            this.select = select;
+            this.dateColumn = dateColumn;
+            this.statusColumn = statusColumn;
+            this.orderBy = orderBy;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Looks up a dataset by its URL name (e.g., "order-items").
+         * 
+         * @param name URL name of the dataset
+         * @return Matching dataset, or null if none matches
+         */
+        public static Dataset fromName(String name) {
+            for (Dataset dataset : values()) {
+                if (dataset.name.equalsIgnoreCase(name)) {
+                    return dataset;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Supported output formats.
+     */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format fromName(String name) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * Streams a dataset to the given output stream.
+     * 
+     * @param dataset The dataset to export
+     * @param format Output format (CSV or NDJSON)
+     * @param from Inclusive lower bound on order date, or null
+     * @param to Inclusive upper bound on order date, or null
+     * @param status Order status (payment status for payments) to match exactly, or null
+     * @param out Output stream to write to; not closed by this method
+     * @return Number of rows written
+     */
+    public long export(Dataset dataset, Format format, LocalDate from, LocalDate to, String status, OutputStream out) {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(dataset.select);
+        String joiner = " WHERE ";
+        if (from != null) {
+            // DATE binds: a TIMESTAMP bind would convert the DATE column and rule out its index
+            sql.append(joiner).append(dataset.dateColumn).append(" >= CAST(? AS DATE)");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+            joiner = " AND ";
+        }
+        if (to != null) {
+            sql.append(joiner).append(dataset.dateColumn).append(" < CAST(? AS DATE)");
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            joiner = " AND ";
+        }
+        if (status != null && !status.trim().isEmpty()) {
+            sql.append(joiner).append(dataset.statusColumn).append(" = ?");
+            args.add(status.trim());
+        }
+        sql.append(" ORDER BY ").append(dataset.orderBy);
+
+        PreparedStatementCreator creator = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        };
+        Long rows = jdbcTemplate.query(creator, rs -> {
+            try {
+                return format == Format.CSV ? writeCsv(rs, out) : writeNdjson(rs, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return rows != null ? rows : 0L;
+    }
+
+    private long writeCsv(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) {
+                writer.write(',');
+            }
+            writer.write(meta.getColumnLabel(i).toLowerCase());
+        }
+        writer.write("\r\n");
+        long rows = 0;
+        while (rs.next()) {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                String value = formatValue(rs.getObject(i));
+                if (value != null) {
+                    writeCsvField(writer, value);
+                }
+            }
+            writer.write("\r\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private long writeNdjson(ResultSet rs, OutputStream out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        String[] names = new String[columns + 1];
+        for (int i = 1; i <= columns; i++) {
+            names[i] = meta.getColumnLabel(i).toLowerCase();
+        }
+        long rows = 0;
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            json.setRootValueSeparator(null);
+            while (rs.next()) {
+                json.writeStartObject();
+                for (int i = 1; i <= columns; i++) {
+                    Object value = rs.getObject(i);
+                    if (value == null) {
+                        json.writeNullField(names[i]);
+                    } else if (value instanceof BigDecimal) {
+                        // Plain notation, as in the CSV export (Oracle NUMBERs can come back as 2E+1)
+                        json.writeFieldName(names[i]);
+                        json.writeNumber(((BigDecimal) value).toPlainString());
+                    } else if (value instanceof Double || value instanceof Float) {
+                        json.writeNumberField(names[i], ((Number) value).doubleValue());
+                    } else if (value instanceof Number) {
+                        json.writeNumberField(names[i], ((Number) value).longValue());
+                    } else {
+                        json.writeStringField(names[i], formatValue(value));
+                    }
+                }
+                json.writeEndObject();
+                json.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toString();
+        }
+        if (value instanceof java.util.Date) {
+            return new Timestamp(((java.util.Date) value).getTime()).toLocalDateTime().toString();
+        }
+        return value.toString();
+    }
+}
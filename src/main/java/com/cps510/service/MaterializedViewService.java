@@ -0,0 +1,470 @@
+package com.cps510.service;
+
+import com.cps510.dao.ReportingViewRouter;
+import com.cps510.dao.ReportingViewRouter.ReportingView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service for the materialized view schema mode (app.mview.enabled):
+ * - Creates MV_ORDERS_SUMMARY, MV_ORDER_LINE_ITEMS and MV_PAYMENTS, materialized copies of the
+ *   three reporting views, with Create Tables or from the admin menu; on Oracle they are
+ *   REFRESH FAST ON DEMAND join views over materialized view logs (WITH ROWID) on the base
+ *   tables, with an index on each ROWID column and on the columns the DAOs filter and sort by
+ * - Refreshes them together every app.mview.refresh-ms, after sample data or seeding, and from
+ *   the admin menu; Oracle applies only the logged changes (FORCE, so it falls back to a
+ *   complete refresh when a fast one is impossible)
+ * - Tells the ReportingViewRouter which materialized views exist and when they were refreshed,
+ *   so the DAOs read them instead of the views when they are recent enough
+ * - Reports each one's staleness: the application's view of it and Oracle's (USER_MVIEWS and
+ *   the pending rows in the materialized view logs)
+ * The embedded database has no materialized views; there each one is a table filled from its
+ * view, and a refresh replaces its contents in one transaction.
+ * Records mview.refresh (time to refresh all materialized views).
+ */
+@Service
+public class MaterializedViewService {
+
+    private static final Logger log = LoggerFactory.getLogger(MaterializedViewService.class);
+
+    /**
+     * Base tables of the reporting views; each needs a materialized view log for fast refresh.
+     */
+    private static final String[] LOGGED_TABLES = {"Category_", "Customer", "Employee", "Product", "Order_", "Payment", "OrderItem"};
+
+    /**
+     * Materialized view definitions. Fast-refreshable join views must select the ROWID of every
+     * base table and, on Oracle 11g, use joins in the WHERE clause.
+     */
+    private static final List<Definition> DEFINITIONS = List.of(
+        new Definition(ReportingView.ORDERS_SUMMARY, "IX_MVOS",
+            "SELECT o.ROWID AS o_rid, c.ROWID AS c_rid, e.ROWID AS e_rid, o.order_id, o.order_date, o.order_status, " +
+            "o.total_amount, c.customer_name, e.employee_name FROM Order_ o, Customer c, Employee e " +
+            "WHERE c.customer_id = o.customer_id AND e.employee_id = o.employee_id",
+            new String[]{"o_rid", "c_rid", "e_rid"},
+            new String[][]{{"DATE", "order_date, order_id"}}),
+        new Definition(ReportingView.ORDER_LINE_ITEMS, "IX_MVOLI",
+            "SELECT oi.ROWID AS oi_rid, p.ROWID AS p_rid, cat.ROWID AS cat_rid, oi.order_id, p.product_id, p.product_name, " +
+            "p.product_brand, p.product_size, p.product_colour, cat.category_name, oi.item_qty, oi.unit_price, " +
+            "(oi.item_qty * oi.unit_price) AS line_total FROM OrderItem oi, Product p, Category_ cat " +
+            "WHERE p.product_id = oi.product_id AND cat.category_id = p.category_id",
+            new String[]{"oi_rid", "p_rid", "cat_rid"},
+            new String[][]{{"ORDER", "order_id, product_name"}}),
+        new Definition(ReportingView.PAYMENTS, "IX_MVPAY",
+            "SELECT p.ROWID AS p_rid, o.ROWID AS o_rid, c.ROWID AS c_rid, p.payment_id, p.order_id, p.payment_method, " +
+            "p.payment_amount, p.payment_status, o.order_date, c.customer_name FROM Payment p, Order_ o, Customer c " +
+            "WHERE o.order_id = p.order_id AND c.customer_id = o.customer_id",
+            new String[]{"p_rid", "o_rid", "c_rid"},
+            new String[][]{{"ID", "payment_id"}, {"ORDER", "order_id"}})
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReportingViewRouter router;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.mview.enabled:false}")
+    private boolean enabled;
+
+    @Value("${spring.datasource.driver-class-name}")
+    private String driverClassName;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Date lastRefreshed;
+    private volatile long lastRefreshMillis;
+    private volatile String lastError;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Creates the materialized views (and on Oracle their logs and indexes) that do not exist yet.
+     * 
+     * @return Success or error message
+     */
+    public String create() {
+        if (!enabled) {
+            return disabledMessage();
+        }
+        try (Connection conn = jdbcTemplate.getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            return create(stmt);
+        } catch (Exception e) {
+            return "Error creating materialized views: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Creates the missing materialized views on the given statement's connection; used by
+     * Create Tables after the reporting views exist.
+     */
+    String create(Statement stmt) throws SQLException {
+        refreshLock.lock();
+        try {
+            long startedAt = System.nanoTime();
+            Set<String> existing = existingNames();
+            StringBuilder errors = new StringBuilder();
+            if (isOracle()) {
+                Set<String> logged = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT master FROM user_mview_logs", String.class));
+                for (String table : LOGGED_TABLES) {
+                    if (!logged.contains(table.toUpperCase())) {
+                        stmt.execute("CREATE MATERIALIZED VIEW LOG ON " + table + " WITH ROWID");
+                    }
+                }
+            }
+            int created = 0;
+            int failed = 0;
+            for (Definition definition : DEFINITIONS) {
+                String name = definition.view.getMaterializedViewName();
+                if (existing.contains(name)) {
+                    continue;
+                }
+                try {
+                    if (isOracle()) {
+                        stmt.execute("CREATE MATERIALIZED VIEW " + name + " BUILD IMMEDIATE REFRESH FAST ON DEMAND AS " +
+                                     definition.oracleQuery);
+                        for (String column : definition.rowidColumns) {
+                            stmt.execute("CREATE INDEX " + definition.indexPrefix + "_" + column.toUpperCase() +
+                                         " ON " + name + " (" + column + ")");
+                        }
+                    } else {
+                        stmt.execute("CREATE TABLE " + name + " AS SELECT * FROM " + definition.view.getViewName());
+                    }
+                    for (String[] index : definition.indexes) {
+                        stmt.execute("CREATE INDEX " + definition.indexPrefix + "_" + index[0] +
+                                     " ON " + name + " (" + index[1] + ")");
+                    }
+                    // Built from the committed rows just now, so current as of startedAt
+                    router.setPresent(definition.view, true);
+                    router.refreshed(definition.view, startedAt);
+                    created++;
+                } catch (SQLException e) {
+                    errors.append("Error creating ").append(name).append(": ").append(e.getMessage()).append("\n");
+                    failed++;
+                }
+            }
+            for (Definition definition : DEFINITIONS) {
+                if (existing.contains(definition.view.getMaterializedViewName())) {
+                    router.setPresent(definition.view, true);
+                }
+            }
+            return "Materialized views created: " + created + ", already present: " +
+                   (DEFINITIONS.size() - created - failed) + ".\n" + errors;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the materialized views and, on Oracle, the materialized view logs on the base tables.
+     * Works whether or not the mode is enabled, to clean up after turning it off.
+     * 
+     * @return Success or error message
+     */
+    public String drop() {
+        refreshLock.lock();
+        try (Connection conn = jdbcTemplate.getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            int dropped = drop(stmt);
+            if (isOracle()) {
+                Set<String> logged = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT master FROM user_mview_logs", String.class));
+                for (String table : LOGGED_TABLES) {
+                    if (logged.contains(table.toUpperCase())) {
+                        stmt.execute("DROP MATERIALIZED VIEW LOG ON " + table);
+                    }
+                }
+            }
+            return "Materialized views dropped: " + dropped + " of " + DEFINITIONS.size() + ".";
+        } catch (Exception e) {
+            return "Error dropping materialized views: " + e.getMessage();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the materialized views that exist; used by Drop Tables before the tables go.
+     * 
+     * @return Number of materialized views dropped
+     */
+    int drop(Statement stmt) throws SQLException {
+        Set<String> existing = existingNames();
+        int dropped = 0;
+        for (Definition definition : DEFINITIONS) {
+            String name = definition.view.getMaterializedViewName();
+            router.setPresent(definition.view, false);
+            if (existing.contains(name)) {
+                stmt.execute((isOracle() ? "DROP MATERIALIZED VIEW " : "DROP TABLE ") + name);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Refreshes the materialized views in the background, unless a refresh is already running.
+     */
+    @Scheduled(fixedDelayString = "${app.mview.refresh-ms:60000}")
+    public void scheduledRefresh() {
+        if (enabled && refreshLock.tryLock()) {
+            try {
+                refreshExisting();
+            } catch (Exception e) {
+                lastError = e.getMessage();
+                log.warn("Materialized view refresh failed: {}", e.getMessage());
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Refreshes the materialized views now, waiting for a refresh that is already running.
+     * 
+     * @return Success or error message
+     */
+    public String refresh() {
+        if (!enabled) {
+            return disabledMessage();
+        }
+        refreshLock.lock();
+        try {
+            int refreshed = refreshExisting();
+            if (refreshed == 0) {
+                return "Error refreshing materialized views: none exist; create them first.";
+            }
+            return "Materialized views refreshed: " + refreshed + " in " + lastRefreshMillis + " ms.";
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            return "Error refreshing materialized views: " + e.getMessage();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Brings the materialized views up to date after rows were loaded without the DAOs
+     * (sample data, seeding). Reads fall back to the views until the refresh completes.
+     */
+    public void refreshAfterLoad() {
+        router.invalidate();
+        if (!enabled) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            refreshExisting();
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            log.warn("Materialized view refresh after load failed: {}", e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Reports each materialized view with the application's and the database's view of its
+     * staleness, for the admin page.
+     * 
+     * @return One ordered map per materialized view
+     */
+    public List<Map<String, Object>> getStatus() {
+        Map<String, Map<String, Object>> dictionary = new LinkedHashMap<>();
+        Map<String, Long> pendingLogRows = new LinkedHashMap<>();
+        if (isOracle()) {
+            try {
+                jdbcTemplate.query("SELECT mview_name, staleness, last_refresh_type, last_refresh_date, compile_state " +
+                                   "FROM user_mviews", rs -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("oracleStaleness", rs.getString("staleness"));
+                    row.put("lastRefreshType", rs.getString("last_refresh_type"));
+                    row.put("lastRefreshDate", rs.getTimestamp("last_refresh_date"));
+                    row.put("compileState", rs.getString("compile_state"));
+                    dictionary.put(rs.getString("mview_name"), row);
+                });
+                for (Map<String, Object> logTable : jdbcTemplate.queryForList(
+                        "SELECT master, log_table FROM user_mview_logs")) {
+                    Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + logTable.get("log_table"), Long.class);
+                    pendingLogRows.put((String) logTable.get("master"), rows);
+                }
+            } catch (Exception e) {
+                log.warn("Could not read materialized view status: {}", e.getMessage());
+            }
+        }
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (Definition definition : DEFINITIONS) {
+            ReportingView view = definition.view;
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", view.getMaterializedViewName());
+            entry.put("view", view.getViewName());
+            entry.put("staleness", router.describe(view));
+            entry.put("lastRefreshed", lastRefreshed);
+            Map<String, Object> oracle = dictionary.get(view.getMaterializedViewName());
+            if (oracle != null) {
+                entry.putAll(oracle);
+            }
+            if (!pendingLogRows.isEmpty()) {
+                long pending = 0;
+                for (String table : view.getTables()) {
+                    pending += pendingLogRows.getOrDefault(table.toUpperCase(), 0L);
+                }
+                entry.put("pendingLogRows", pending);
+            }
+            status.add(entry);
+        }
+        return status;
+    }
+
+    /**
+     * Returns the refresh state and routing counters, for the admin page.
+     * 
+     * @return Ordered map of metric name to value
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mview.enabled", enabled);
+        if (!enabled) {
+            return stats;
+        }
+        for (Definition definition : DEFINITIONS) {
+            stats.put("mview." + definition.view.getMaterializedViewName(), router.describe(definition.view));
+        }
+        stats.put("mview.lastRefreshed", lastRefreshed != null ? lastRefreshed : "never");
+        stats.put("mview.lastRefreshMillis", lastRefreshMillis);
+        stats.put("mview.maxLagMillis", router.getMaxLagMillis());
+        if (lastError != null) {
+            stats.put("mview.lastError", lastError);
+        }
+        stats.putAll(router.stats());
+        return stats;
+    }
+
+    /**
+     * Refreshes the materialized views that exist in one transaction and reports the refresh
+     * to the router. Caller holds refreshLock.
+     * 
+     * @return Number of materialized views refreshed
+     */
+    private int refreshExisting() throws SQLException {
+        Set<String> existing = existingNames();
+        List<Definition> present = new ArrayList<>();
+        for (Definition definition : DEFINITIONS) {
+            boolean exists = existing.contains(definition.view.getMaterializedViewName());
+            router.setPresent(definition.view, exists);
+            if (exists) {
+                present.add(definition);
+            }
+        }
+        if (present.isEmpty()) {
+            return 0;
+        }
+        long startedAt = System.nanoTime();
+        try (Connection conn = jdbcTemplate.getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            if (isOracle()) {
+                List<String> names = new ArrayList<>();
+                for (Definition definition : present) {
+                    names.add(definition.view.getMaterializedViewName());
+                }
+                // One call refreshes the list as a whole, so the views stay consistent with each other
+                stmt.execute("BEGIN DBMS_MVIEW.REFRESH(list => '" + String.join(",", names) + "', " +
+                             "method => '?', atomic_refresh => TRUE); END;");
+            } else {
+                conn.setAutoCommit(false);
+                try {
+                    for (Definition definition : present) {
+                        String name = definition.view.getMaterializedViewName();
+                        stmt.execute("DELETE FROM " + name);
+                        stmt.execute("INSERT INTO " + name + " SELECT * FROM " + definition.view.getViewName());
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        for (Definition definition : present) {
+            router.refreshed(definition.view, startedAt);
+        }
+        lastRefreshed = new Date();
+        lastRefreshMillis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+        lastError = null;
+        Timer.builder("mview.refresh")
+            .description("Time to refresh the materialized reporting views")
+            .register(registry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        return present.size();
+    }
+
+    private Set<String> existingNames() {
+        List<String> names = new ArrayList<>();
+        for (Definition definition : DEFINITIONS) {
+            names.add(definition.view.getMaterializedViewName());
+        }
+        String list = "'" + String.join("','", names) + "'";
+        String dictionary = isOracle()
+            ? "SELECT mview_name FROM user_mviews WHERE mview_name IN (" + list + ")"
+            : "SELECT table_name FROM information_schema.tables WHERE table_schema = SCHEMA() AND table_name IN (" + list + ")";
+        return new HashSet<>(jdbcTemplate.queryForList(dictionary, String.class));
+    }
+
+    private boolean isOracle() {
+        return driverClassName != null && driverClassName.startsWith("oracle.");
+    }
+
+    private static String disabledMessage() {
+        return "Error: materialized views are disabled; set app.mview.enabled=true.";
+    }
+
+    /**
+     * A materialized copy of a reporting view: the prefix of its index names, the Oracle query
+     * (with base table ROWIDs), its ROWID columns and its other indexes (name suffix, columns).
+     */
+    private static final class Definition {
+        private final ReportingView view;
+        private final String indexPrefix;
+        private final String oracleQuery;
+        private final String[] rowidColumns;
+        private final String[][] indexes;
+
+        Definition(ReportingView view, String indexPrefix, String oracleQuery, String[] rowidColumns,
+                   String[][] indexes) {
+            this.view = view;
+            this.indexPrefix = indexPrefix;
+            this.oracleQuery = oracleQuery;
+            this.rowidColumns = rowidColumns;
+            this.indexes = indexes;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.cps510.service;
+
+import com.cps510.dao.OrderDAO;
+import com.cps510.dao.OrderItemDAO;
+import com.cps510.model.OrderItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service for changing the lines of an order:
+ * - Applies each line change and the matching total update in one transaction (one commit)
+ * - Sets Order_.total_amount to the sum of the order's lines with one correlated UPDATE, so the
+ *   total typed in when the order was created is replaced by its lines on the first edit
+ * - Serializes concurrent edits of the same order on that order's row lock, taken first
+ * If any statement fails the whole change is rolled back, so the total never drifts from its lines.
+ */
+@Service
+public class OrderService {
+
+    @Autowired
+    private OrderDAO orderDAO;
+
+    @Autowired
+    private OrderItemDAO orderItemDAO;
+
+    /**
+     * Adds one line to an order and sets the order total to the sum of its lines.
+     * 
+     * @param item The order line to add (order ID, product ID, quantity, unit price)
+     * @throws DataRetrievalFailureException if the order does not exist
+     */
+    @Transactional
+    public void addItem(OrderItem item) {
+        addItems(item.getOrderId(), Collections.singletonList(item));
+    }
+
+    /**
+     * Adds several lines to an order in one JDBC batch and sets the order total once.
+     * Lines for the same product are merged, since an order holds one line per product,
+     * so they must agree on the unit price.
+     * 
+     * @param orderId The unique identifier of the order
+     * @param items The order lines to add
+     * @return Number of lines inserted after merging
+     * @throws DataRetrievalFailureException if the order does not exist
+     * @throws IllegalArgumentException if two lines for the same product have different unit prices
+     */
+    @Transactional
+    public int addItems(Long orderId, List<OrderItem> items) {
+        Map<Long, OrderItem> merged = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            item.setOrderId(orderId);
+            OrderItem existing = merged.get(item.getProductId());
+            if (existing == null) {
+                merged.put(item.getProductId(), item);
+            } else if (existing.getUnitPrice().compareTo(item.getUnitPrice()) != 0) {
+                throw new IllegalArgumentException("Product " + item.getProductId() +
+                                                   " appears with different unit prices");
+            } else {
+                existing.setItemQty(existing.getItemQty() + item.getItemQty());
+            }
+        }
+        // Locks the order row first so concurrent edits of this order queue behind us
+        if (!orderDAO.lockOrder(orderId)) {
+            throw new DataRetrievalFailureException("Order " + orderId + " not found");
+        }
+        List<OrderItem> lines = new ArrayList<>(merged.values());
+        orderItemDAO.insertAll(lines);
+        orderDAO.recalculateTotalAmount(orderId);
+        return lines.size();
+    }
+
+    /**
+     * Removes one line from an order and sets the order total to the sum of the remaining lines.
+     * Removing the last line fails (CK_ORDER_TOTAL needs a positive total) and changes nothing.
+     * 
+     * @param orderId The unique identifier of the order
+     * @param productId The unique identifier of the product on the line
+     * @return true if the line existed and was removed
+     */
+    @Transactional
+    public boolean removeItem(Long orderId, Long productId) {
+        // Locks the order row before the line, in the same order as addItems
+        if (!orderDAO.lockOrder(orderId)) {
+            return false;
+        }
+        OrderItem line = orderItemDAO.lockLine(orderId, productId);
+        if (line == null) {
+            return false;
+        }
+        orderItemDAO.delete(line);
+        orderDAO.recalculateTotalAmount(orderId);
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package com.cps510.service;
+
+import com.cps510.dao.OrderDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service for bulk reconciliation of order status against payments:
+ * - Recomputes "Completed"/"Pending" for every order placed in a date range
+ * - Splits the range into chunks of consecutive order IDs, one set-based UPDATE and commit per chunk
+ * - Runs chunks in parallel on a bounded number of threads
+ * - Optionally runs nightly for the previous day (app.reconcile.cron)
+ * A failed chunk is reported and does not stop the others; rerunning is safe.
+ */
+@Service
+public class PaymentReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationService.class);
+
+    @Autowired
+    private OrderDAO orderDAO;
+
+    @Value("${app.reconcile.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.reconcile.parallelism:4}")
+    private int parallelism;
+
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    /**
+     * Reconciles the status of all orders placed between two dates.
+     * 
+     * @param from First order date to reconcile (inclusive)
+     * @param to Last order date to reconcile (inclusive)
+     * @return Human-readable summary of the run
+     */
+    public String reconcile(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            return "Error reconciling payments: end date " + to + " is before start date " + from;
+        }
+        long start = System.nanoTime();
+        Date fromDate = toDate(from);
+        Date toDate = toDate(to.plusDays(1));
+        List<Long> orderIds;
+        try {
+            orderIds = orderDAO.findIdsByDateRange(fromDate, toDate);
+        } catch (Exception e) {
+            return "Error reconciling payments: " + e.getMessage();
+        }
+
+        int size = Math.max(1, chunkSize);
+        List<long[]> chunks = new ArrayList<>();
+        for (int i = 0; i < orderIds.size(); i += size) {
+            int last = Math.min(i + size, orderIds.size()) - 1;
+            chunks.add(new long[]{orderIds.get(i), orderIds.get(last)});
+        }
+
+        int updated = 0;
+        int failed = 0;
+        StringBuilder errors = new StringBuilder();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, chunks.size())), runnable -> {
+            Thread thread = new Thread(runnable, "payment-reconcile-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (long[] chunk : chunks) {
+                results.add(executor.submit(() -> orderDAO.refreshStatusFromPayments(chunk[0], chunk[1], fromDate, toDate)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    updated += results.get(i).get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    errors.append("Error in orders ").append(chunks.get(i)[0]).append("-").append(chunks.get(i)[1])
+                          .append(": ").append(e.getCause().getMessage()).append("\n");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Error reconciling payments: interrupted";
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Reconciled {} orders from {} to {} in {} chunks: {} updated, {} chunks failed, {} ms",
+                 orderIds.size(), from, to, chunks.size(), updated, failed, elapsedMillis);
+        return "Reconciled " + orderIds.size() + " orders from " + from + " to " + to + " in " + chunks.size() +
+               " chunks: " + updated + " status changes, " + failed + " failed chunks, " + elapsedMillis + " ms.\n" + errors;
+    }
+
+    /**
+     * Nightly settlement run for the previous day's orders.
+     * Disabled unless app.reconcile.cron is set.
+     */
+    @Scheduled(cron = "${app.reconcile.cron:-}")
+    public void reconcileYesterday() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        reconcile(yesterday, yesterday);
+    }
+
+    private static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
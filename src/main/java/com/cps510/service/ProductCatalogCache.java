@@ -0,0 +1,160 @@
+package com.cps510.service;
+
+import com.cps510.dao.DataChangeEvent;
+import com.cps510.dao.ProductDAO;
+import com.cps510.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache in front of ProductDAO for the product catalog:
+ * - Caches products by ID and the full catalog list (product dropdowns)
+ * - Bounded by entry count with a time-to-live as a safety net
+ * - Invalidated whenever ProductDAO or CategoryDAO writes (category names are joined in)
+ * - Records hit, miss and eviction counts
+ */
+@Service
+public class ProductCatalogCache {
+
+    private static final String ALL_PRODUCTS = "all";
+
+    @Autowired
+    private ProductDAO productDAO;
+
+    @Value("${app.cache.products.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.cache.products.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<Long, Versioned<Optional<Product>>> byId;
+    private Cache<String, Versioned<List<Product>>> lists;
+
+    /**
+     * Incremented on every invalidation; entries loaded under an older generation are ignored,
+     * so a load racing with a write can never re-populate stale data.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        lists = Caffeine.newBuilder()
+                .maximumSize(4)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns a product by ID, loading it from the database on a miss.
+     * 
+     * @param productId The unique identifier of the product
+     * @return Product entity if found, null otherwise
+     */
+    public Product findById(Long productId) {
+        long current = generation.get();
+        Versioned<Optional<Product>> entry = byId.getIfPresent(productId);
+        if (entry == null || entry.generation != current) {
+            entry = new Versioned<>(current, Optional.ofNullable(productDAO.findById(productId)));
+            putIfCurrent(byId, productId, entry);
+        }
+        return entry.value.orElse(null);
+    }
+
+    /**
+     * Returns the full product catalog ordered by product name, loading it on a miss.
+     * Also warms the by-ID cache from the loaded list.
+     * 
+     * @return Unmodifiable list of all products with category names
+     */
+    public List<Product> findAll() {
+        long current = generation.get();
+        Versioned<List<Product>> entry = lists.getIfPresent(ALL_PRODUCTS);
+        if (entry == null || entry.generation != current) {
+            List<Product> products = Collections.unmodifiableList(productDAO.findAll());
+            entry = new Versioned<>(current, products);
+            putIfCurrent(lists, ALL_PRODUCTS, entry);
+            for (Product product : products) {
+                putIfCurrent(byId, product.getProductId(), new Versioned<>(current, Optional.of(product)));
+            }
+        }
+        return entry.value;
+    }
+
+    /**
+     * Drops all cached catalog entries.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        byId.invalidateAll();
+        lists.invalidateAll();
+    }
+
+    /**
+     * Invalidates the catalog when products or categories change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (event.affects("Product", "Category_")) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Returns hit/miss/eviction statistics for the catalog caches.
+     * 
+     * @return Ordered map of metric name to value, suitable for display
+     */
+    public Map<String, Object> stats() {
+        CacheStats ids = byId.stats();
+        CacheStats all = lists.stats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("products.size", byId.estimatedSize());
+        stats.put("products.hits", ids.hitCount());
+        stats.put("products.misses", ids.missCount());
+        stats.put("products.evictions", ids.evictionCount());
+        stats.put("catalog.hits", all.hitCount());
+        stats.put("catalog.misses", all.missCount());
+        stats.put("catalog.evictions", all.evictionCount());
+        stats.put("invalidations", generation.get());
+        return stats;
+    }
+
+    private <K, V> void putIfCurrent(Cache<K, Versioned<V>> cache, K key, Versioned<V> entry) {
+        if (entry.generation == generation.get()) {
+            cache.put(key, entry);
+        }
+    }
+
+    /**
+     * Cached value tagged with the invalidation generation it was loaded under.
+     */
+    private static final class Versioned<V> {
+        private final long generation;
+        private final V value;
+
+        Versioned(long generation, V value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.cps510.service;
+
+import com.cps510.dao.DataChangeEvent;
+import com.cps510.dao.ProductDAO;
+import com.cps510.model.Product;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory inverted index for product search:
+ * - Tokenizes product name, brand, colour and category name
+ * - Matches each query word against token prefixes, all words must match (AND)
+ * - Ranks by field weight (name > brand > category > colour), exact tokens above prefixes
+ * - Updates incrementally when ProductDAO writes a single product; rebuilds on category changes
+ * Falls back to ProductDAO.search (SQL LIKE) if the index cannot be built.
+ */
+@Service
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int FIELD_NAME = 8;
+    private static final int FIELD_BRAND = 4;
+    private static final int FIELD_CATEGORY = 2;
+    private static final int FIELD_COLOUR = 1;
+
+    @Autowired
+    private ProductDAO productDAO;
+
+    /** Indexed products by ID. */
+    private final Map<Long, Product> documents = new ConcurrentHashMap<>();
+
+    /** Token to (product ID to bitmask of fields containing the token), sorted for prefix lookups. */
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    private volatile boolean built;
+    private volatile boolean changedDuringBuild;
+
+    /** Serializes builds and incremental updates; a lock rather than a monitor, as builds query the database. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Searches products by name, brand, colour or category.
+     * 
+     * @param query Free-text query; each word is matched as a token prefix
+     * @return Matching products, best match first, ties ordered by product name
+     */
+    public List<Product> search(String query) {
+        if (!ensureBuilt()) {
+            return productDAO.search(query);
+        }
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Integer> scores = null;
+        for (String term : new LinkedHashSet<>(terms)) {
+            Map<Long, Integer> termScores = new HashMap<>();
+            NavigableMap<String, Map<Long, Integer>> matches =
+                    postings.subMap(term, true, term + Character.MAX_VALUE, false);
+            for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+                int exactBonus = match.getKey().equals(term) ? 2 : 1;
+                for (Map.Entry<Long, Integer> posting : match.getValue().entrySet()) {
+                    if (scores != null && !scores.containsKey(posting.getKey())) {
+                        continue;
+                    }
+                    termScores.merge(posting.getKey(), posting.getValue() * exactBonus, Math::max);
+                }
+            }
+            if (scores != null) {
+                Map<Long, Integer> previousScores = scores;
+                termScores.replaceAll((id, score) -> score + previousScores.get(id));
+            }
+            scores = termScores;
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        List<Product> results = new ArrayList<>(scores.size());
+        for (Long id : scores.keySet()) {
+            Product product = documents.get(id);
+            if (product != null) {
+                results.add(product);
+            }
+        }
+        Map<Long, Integer> finalScores = scores;
+        results.sort(Comparator.<Product>comparingInt(p -> -finalScores.get(p.getProductId()))
+                .thenComparing(Product::getProductName, Comparator.nullsLast(String::compareTo)));
+        return results;
+    }
+
+    /**
+     * Number of products and distinct tokens currently indexed.
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("search.documents", documents.size());
+        stats.put("search.tokens", postings.size());
+        return stats;
+    }
+
+    /**
+     * Keeps the index in step with product and category writes.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (!built) {
+            if (event.affects("Product", "Category_")) {
+                changedDuringBuild = true;
+            }
+            return;
+        }
+        if (event.affects("Product") && event.getKey() instanceof Long) {
+            Long productId = (Long) event.getKey();
+            try {
+                reindex(productId, productDAO.findById(productId));
+            } catch (RuntimeException e) {
+                log.warn("Could not reindex product {}: {}", productId, e.getMessage());
+                built = false;
+            }
+        } else if (event.affects("Product", "Category_")) {
+            // Category renames or bulk product changes: rebuild lazily on next search
+            built = false;
+        }
+    }
+
+    private boolean ensureBuilt() {
+        if (built) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (built) {
+                return true;
+            }
+            try {
+                changedDuringBuild = false;
+                documents.clear();
+                postings.clear();
+                for (Product product : productDAO.findAll()) {
+                    add(product);
+                }
+                // A write that raced the full load leaves the index to be rebuilt on the next search
+                built = !changedDuringBuild;
+                log.info("Product search index built with {} products and {} tokens", documents.size(), postings.size());
+            } catch (RuntimeException e) {
+                log.warn("Product search index unavailable, using SQL search: {}", e.getMessage());
+            }
+            return built;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reindex(Long productId, Product product) {
+        lock.lock();
+        try {
+            Product previous = documents.remove(productId);
+            if (previous != null) {
+                for (String token : fieldsByToken(previous).keySet()) {
+                    postings.computeIfPresent(token, (t, ids) -> {
+                        ids.remove(productId);
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+            if (product != null) {
+                add(product);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(Product product) {
+        documents.put(product.getProductId(), product);
+        for (Map.Entry<String, Integer> entry : fieldsByToken(product).entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new ConcurrentHashMap<>())
+                    .put(product.getProductId(), entry.getValue());
+        }
+    }
+
+    private static Map<String, Integer> fieldsByToken(Product product) {
+        Map<String, Integer> fields = new HashMap<>();
+        addField(fields, product.getProductName(), FIELD_NAME);
+        addField(fields, product.getProductBrand(), FIELD_BRAND);
+        addField(fields, product.getCategoryName(), FIELD_CATEGORY);
+        addField(fields, product.getProductColour(), FIELD_COLOUR);
+        return fields;
+    }
+
+    private static void addField(Map<String, Integer> fields, String text, int field) {
+        for (String token : tokenize(text)) {
+            fields.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * Splits text into lower-case alphanumeric tokens.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,239 @@
+package com.cps510.service;
+
+import com.cps510.config.QueryCount;
+import com.cps510.config.QueryCounter;
+import com.cps510.config.VirtualThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Service for running a request's independent DAO reads concurrently:
+ * - A controller opens a Batch, adds its reads and awaits them, so the page waits for the
+ *   slowest read instead of the sum of them
+ * - The reads run on a bounded pool (app.fan-out.threads) with a bounded queue; when both are
+ *   full the caller runs the read itself, so an overloaded pool degrades to sequential reads
+ * - The last read of a batch runs on the calling thread, so a batch of n reads takes n - 1
+ *   pool threads
+ * - await() gives up after app.fan-out.timeout-ms, cancels the reads still queued and throws
+ *   QueryTimeoutException
+ * - Reads run outside the caller's transaction, each on its own pooled connection, so only
+ *   reads that need no common snapshot belong in a batch; their statements are counted
+ *   towards the caller's query budget
+ * - In the virtual-thread mode (app.threads.virtual) each read gets its own virtual thread
+ *   instead, and the DatabaseConcurrencyLimiter bounds the database load
+ * Records query.fanout.wait, the time the caller blocks on the other reads after its own read
+ * (tagged with the batch name and outcome), and query.fanout.queue, the time reads wait for a
+ * pool thread.
+ */
+@Service
+public class QueryFanOut {
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.fan-out.threads:8}")
+    private int threads;
+
+    @Value("${app.fan-out.queue-size:64}")
+    private int queueSize;
+
+    @Value("${app.fan-out.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    @Value("${app.threads.virtual:false}")
+    private boolean virtualThreads;
+
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private ExecutorService executor;
+    private Timer queueTimer;
+
+    @PostConstruct
+    public void start() {
+        if (virtualThreads && VirtualThreads.isSupported()) {
+            executor = VirtualThreads.newExecutor("query-fanout-");
+        } else {
+            int size = Math.max(1, threads);
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueSize)), runnable -> {
+                    Thread thread = new Thread(runnable, "query-fanout-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+        queueTimer = Timer.builder("query.fanout.queue")
+            .description("Time fanned-out reads wait for a pool thread")
+            .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Opens a batch of concurrent reads.
+     * 
+     * @param name Name for the metrics, e.g. "OrderController.viewOrderItems"
+     * @return Empty batch
+     */
+    public Batch batch(String name) {
+        return new Batch(name);
+    }
+
+    /**
+     * A set of independent reads issued together and awaited with one deadline.
+     */
+    public final class Batch {
+        private final String name;
+        private final List<Read<?>> reads = new ArrayList<>();
+        private boolean started;
+
+        private Batch(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Adds a read to the batch; it starts when the batch is awaited.
+         * 
+         * @param read DAO or cache call
+         * @return Handle for the read's result, available after await()
+         */
+        public <T> Read<T> add(Supplier<T> read) {
+            if (started) {
+                throw new IllegalStateException("Batch " + name + " has already been awaited");
+            }
+            Read<T> handle = new Read<>(read, QueryCounter.current());
+            reads.add(handle);
+            return handle;
+        }
+
+        /**
+         * Runs all reads and waits for them until the deadline.
+         * 
+         * @throws QueryTimeoutException if the reads did not finish in app.fan-out.timeout-ms
+         * @throws RuntimeException the failure of the first failed read, in the order added
+         */
+        public void await() {
+            started = true;
+            if (reads.isEmpty()) {
+                return;
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            for (int i = 0; i < reads.size() - 1; i++) {
+                reads.get(i).submitted = System.nanoTime();
+                executor.execute(reads.get(i).task);
+            }
+            reads.get(reads.size() - 1).task.run();
+
+            long waitStart = System.nanoTime();
+            String outcome = "SUCCESS";
+            try {
+                for (Read<?> read : reads) {
+                    read.await(deadline);
+                }
+            } catch (TimeoutException e) {
+                outcome = "TIMEOUT";
+                for (Read<?> read : reads) {
+                    read.task.cancel(false);
+                }
+                throw new QueryTimeoutException("Reads of " + name + " did not finish in " + timeoutMillis + " ms");
+            } catch (RuntimeException e) {
+                outcome = "ERROR";
+                throw e;
+            } finally {
+                Timer.builder("query.fanout.wait")
+                    .description("Time a request waits on its fanned-out reads after its own read")
+                    .tags("name", name, "outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Result of one read in a batch.
+     */
+    public final class Read<T> {
+        private final FutureTask<T> task;
+        private long submitted;
+
+        private Read(Supplier<T> read, QueryCount count) {
+            this.task = new FutureTask<>(() -> {
+                if (submitted != 0) {
+                    queueTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                }
+                QueryCount previous = QueryCounter.attach(count);
+                try {
+                    return read.get();
+                } finally {
+                    QueryCounter.attach(previous);
+                }
+            });
+        }
+
+        /**
+         * Returns the read's result.
+         * 
+         * @throws IllegalStateException if the batch has not completed
+         */
+        public T get() {
+            if (!task.isDone()) {
+                throw new IllegalStateException("Read has not completed; await the batch first");
+            }
+            return result(task);
+        }
+
+        private void await(long deadline) throws TimeoutException {
+            try {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new QueryTimeoutException("Interrupted while waiting for reads");
+            } catch (ExecutionException | CancellationException e) {
+                result(task);
+            }
+        }
+    }
+
+    private static <T> T result(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (CancellationException e) {
+            throw new QueryTimeoutException("Read was cancelled");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrupted while waiting for read");
+        }
+    }
+}
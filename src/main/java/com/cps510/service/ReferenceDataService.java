@@ -0,0 +1,174 @@
+package com.cps510.service;
+
+import com.cps510.dao.CategoryDAO;
+import com.cps510.dao.CustomerDAO;
+import com.cps510.dao.DataChangeEvent;
+import com.cps510.dao.EmployeeDAO;
+import com.cps510.dao.OrderDAO;
+import com.cps510.model.Category;
+import com.cps510.model.Customer;
+import com.cps510.model.Employee;
+import com.cps510.model.Order;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Service holding in-memory snapshots of the small lookup sets used by form dropdowns:
+ * - Categories (product form)
+ * - Customers and employees (order form)
+ * - Orders (payment form)
+ * Each snapshot is an immutable list with a version number. When the owning DAO writes,
+ * the snapshot is rebuilt on next use and swapped in atomically, so readers always see
+ * either the old or the new list, never a partial one.
+ */
+@Service
+public class ReferenceDataService {
+
+    @Autowired
+    private CategoryDAO categoryDAO;
+
+    @Autowired
+    private CustomerDAO customerDAO;
+
+    @Autowired
+    private EmployeeDAO employeeDAO;
+
+    @Autowired
+    private OrderDAO orderDAO;
+
+    private final ReferenceSet<Category> categories =
+            new ReferenceSet<>("categories", () -> categoryDAO.findAll(), "Category_");
+    private final ReferenceSet<Customer> customers =
+            new ReferenceSet<>("customers", () -> customerDAO.findAll(), "Customer");
+    private final ReferenceSet<Employee> employees =
+            new ReferenceSet<>("employees", () -> employeeDAO.findAll(), "Employee");
+    // V_ORDERS_SUMMARY joins customer and employee names, so those tables invalidate it too
+    private final ReferenceSet<Order> orders =
+            new ReferenceSet<>("orders", () -> orderDAO.findAll(), "Order_", "Customer", "Employee");
+
+    private final List<ReferenceSet<?>> all = Arrays.asList(categories, customers, employees, orders);
+
+    public List<Category> getCategories() {
+        return categories.get().getItems();
+    }
+
+    public List<Customer> getCustomers() {
+        return customers.get().getItems();
+    }
+
+    public List<Employee> getEmployees() {
+        return employees.get().getItems();
+    }
+
+    public List<Order> getOrders() {
+        return orders.get().getItems();
+    }
+
+    /**
+     * Marks every snapshot that depends on the changed table as outdated.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        for (ReferenceSet<?> set : all) {
+            if (event.affects(set.tables)) {
+                set.changes.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the version and size of each snapshot, for the admin page.
+     * 
+     * @return Ordered map of metric name to value
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (ReferenceSet<?> set : all) {
+            Snapshot<?> snapshot = set.current.get();
+            stats.put(set.name + ".version", snapshot != null ? snapshot.getVersion() : 0);
+            stats.put(set.name + ".size", snapshot != null ? snapshot.getItems().size() : 0);
+        }
+        return stats;
+    }
+
+    /**
+     * Immutable, versioned copy of one lookup set.
+     */
+    public static final class Snapshot<T> {
+        private final long version;
+        private final long changesSeen;
+        private final List<T> items;
+        private final Date loadedAt;
+
+        Snapshot(long version, long changesSeen, List<T> items) {
+            this.version = version;
+            this.changesSeen = changesSeen;
+            this.items = List.copyOf(items);
+            this.loadedAt = new Date();
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public Date getLoadedAt() {
+            return loadedAt;
+        }
+    }
+
+    /**
+     * One lookup set: its loader, the tables it depends on, and its current snapshot.
+     */
+    private static final class ReferenceSet<T> {
+        private final String name;
+        private final Supplier<List<T>> loader;
+        private final String[] tables;
+        private final AtomicReference<Snapshot<T>> current = new AtomicReference<>();
+        private final AtomicLong changes = new AtomicLong();
+        // Not a monitor: the loader queries the database, which would pin a virtual thread
+        private final ReentrantLock loadLock = new ReentrantLock();
+
+        ReferenceSet(String name, Supplier<List<T>> loader, String... tables) {
+            this.name = name;
+            this.loader = loader;
+            this.tables = tables;
+        }
+
+        Snapshot<T> get() {
+            Snapshot<T> snapshot = current.get();
+            if (snapshot != null && snapshot.changesSeen == changes.get()) {
+                return snapshot;
+            }
+            loadLock.lock();
+            try {
+                snapshot = current.get();
+                // Read before loading: a write that lands mid-load leaves the new snapshot outdated
+                long seen = changes.get();
+                if (snapshot != null && snapshot.changesSeen == seen) {
+                    return snapshot;
+                }
+                long version = snapshot != null ? snapshot.version + 1 : 1;
+                Snapshot<T> fresh = new Snapshot<>(version, seen, loader.get());
+                current.set(fresh);
+                return fresh;
+            } finally {
+                loadLock.unlock();
+            }
+        }
+    }
+}
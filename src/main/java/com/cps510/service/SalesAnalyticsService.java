@@ -0,0 +1,594 @@
+package com.cps510.service;
+
+import com.cps510.dao.CategoryDAO;
+import com.cps510.dao.DataChangeEvent;
+import com.cps510.dao.OrderItemChangeEvent;
+import com.cps510.dao.PaymentChangeEvent;
+import com.cps510.dao.SalesAnalyticsDAO;
+import com.cps510.model.Category;
+import com.cps510.model.Order;
+import com.cps510.model.OrderItem;
+import com.cps510.model.Product;
+import com.cps510.model.ProductSales;
+import com.cps510.model.SalesTotal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service serving the A5 sales reports (sql/a5.sql Q1 to Q4) from in-memory aggregates:
+ * - Q1 top products by revenue and Q3 category revenue above app.analytics.category-threshold,
+ *   from the revenue of each product rolled up by product name and by category name, kept ranked
+ * - Q2 orders without a paid payment, from the paid payments of each order and the unpaid orders
+ *   kept sorted newest first
+ * - Q4 products never ordered, from the products without order lines, kept sorted by name
+ * The aggregates are loaded from the database once and then kept current from the changes the
+ * DAOs publish after commit: OrderItem inserts and line deletes and Payment writes are applied as
+ * deltas, changed orders are re-read by ID, and product or category writes reload the product
+ * list. Writes whose rows are not known (deleting all lines of an order, seeding) make the next
+ * report rebuild everything, as does the rebuild action on the admin page.
+ * Changes are queued and applied when a report is read, so a report costs the changes since the
+ * last one plus the size of its result, not a scan of the order history.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesAnalyticsService.class);
+
+    /** Payment status that counts an order as paid (Q2). */
+    private static final String PAID = "Paid";
+
+    /** Attempts at a rebuild that order item writes keep overlapping before it is left to the next read. */
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private static final Comparator<SalesTotal> BY_REVENUE =
+        Comparator.comparing(SalesTotal::getRevenue).reversed().thenComparing(SalesTotal::getName);
+    private static final Comparator<Order> NEWEST_FIRST =
+        Comparator.comparing(Order::getOrderDate).thenComparing(Order::getOrderId).reversed();
+    private static final Comparator<ProductState> BY_NAME =
+        Comparator.comparing((ProductState product) -> product.name).thenComparing(product -> product.productId);
+
+    @Autowired
+    private SalesAnalyticsDAO salesAnalyticsDAO;
+
+    @Autowired
+    private CategoryDAO categoryDAO;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.analytics.category-threshold:100}")
+    private BigDecimal categoryThreshold;
+
+    @Value("${app.analytics.max-pending-changes:10000}")
+    private int maxPendingChanges;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<Change> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Everything below is guarded by lock
+    private boolean stale = true;
+    private boolean productsStale;
+    // Changes up to rebuildStart are in the last rebuild; order item changes up to rebuildEnd may be
+    private long rebuildStart;
+    private long rebuildEnd;
+
+    private final Map<Long, ProductState> products = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private final Map<String, BigDecimal> revenueByProductName = new HashMap<>();
+    private final TreeSet<SalesTotal> productRanking = new TreeSet<>(BY_REVENUE);
+    private final Map<String, BigDecimal> revenueByCategoryName = new HashMap<>();
+    private final TreeSet<SalesTotal> categoryRanking = new TreeSet<>(BY_REVENUE);
+    private final TreeSet<ProductState> neverOrdered = new TreeSet<>(BY_NAME);
+
+    private final Map<Long, Long> paidPaymentOrders = new HashMap<>();
+    private final Map<Long, Integer> paidPaymentCounts = new HashMap<>();
+    private final Map<Long, Order> unpaidOrders = new HashMap<>();
+    private final TreeSet<Order> unpaidRanking = new TreeSet<>(NEWEST_FIRST);
+    private final Set<Long> changedOrders = new HashSet<>();
+
+    private long rebuilds;
+    private long changesApplied;
+    private Date builtAt;
+
+    /**
+     * Queues a committed write for the next report. If more than app.analytics.max-pending-changes
+     * writes queue up without a report being read, they are dropped and the next report rebuilds.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDataChange(DataChangeEvent event) {
+        if (!event.affects("OrderItem", "Payment", "Order_", "Product", "Category_")) {
+            return;
+        }
+        pending.add(new Change(sequence.incrementAndGet(), event));
+        if (pendingCount.incrementAndGet() > maxPendingChanges && lock.tryLock()) {
+            try {
+                stale = true;
+                applyPending();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Top products by revenue, grouped by product name (Q1).
+     * 
+     * @param limit Maximum number of products
+     * @return Product names with their revenue, highest first
+     */
+    public List<SalesTotal> getTopProducts(int limit) {
+        lock.lock();
+        try {
+            refresh();
+            List<SalesTotal> top = new ArrayList<>(Math.min(limit, productRanking.size()));
+            for (Iterator<SalesTotal> it = productRanking.iterator(); it.hasNext() && top.size() < limit; ) {
+                top.add(it.next());
+            }
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Revenue per category name for the categories above the threshold (Q3).
+     * 
+     * @return Category names with their revenue, highest first
+     */
+    public List<SalesTotal> getCategoryRevenue() {
+        lock.lock();
+        try {
+            refresh();
+            List<SalesTotal> categories = new ArrayList<>();
+            for (SalesTotal total : categoryRanking) {
+                if (total.getRevenue().compareTo(categoryThreshold) <= 0) {
+                    break;
+                }
+                categories.add(total);
+            }
+            return categories;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Orders that have no payment with status 'Paid' (Q2).
+     * 
+     * @param limit Maximum number of orders
+     * @return Orders with ID, date and total only, newest first
+     */
+    public List<Order> getUnpaidOrders(int limit) {
+        lock.lock();
+        try {
+            refresh();
+            List<Order> orders = new ArrayList<>(Math.min(limit, unpaidRanking.size()));
+            for (Iterator<Order> it = unpaidRanking.iterator(); it.hasNext() && orders.size() < limit; ) {
+                orders.add(it.next());
+            }
+            return orders;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Number of orders that have no payment with status 'Paid'
+     */
+    public int getUnpaidOrderCount() {
+        lock.lock();
+        try {
+            refresh();
+            return unpaidRanking.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Products that were never ordered (Q4).
+     * 
+     * @return Products with ID and name only, ordered by name
+     */
+    public List<Product> getNeverOrderedProducts() {
+        lock.lock();
+        try {
+            refresh();
+            List<Product> result = new ArrayList<>(neverOrdered.size());
+            for (ProductState state : neverOrdered) {
+                Product product = new Product();
+                product.setProductId(state.productId);
+                product.setProductName(state.name);
+                result.add(product);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public BigDecimal getCategoryThreshold() {
+        return categoryThreshold;
+    }
+
+    /**
+     * Discards the aggregates and loads them again from the database.
+     * 
+     * @return Success or error message
+     */
+    public String rebuild() {
+        lock.lock();
+        try {
+            stale = true;
+            applyPending();
+            rebuildAggregates();
+            return "Sales analytics rebuilt: " + products.size() + " products, " +
+                   paidPaymentOrders.size() + " paid payments, " + unpaidRanking.size() + " unpaid orders.";
+        } catch (Exception e) {
+            stale = true;
+            return "Error rebuilding sales analytics: " + e.getMessage();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the aggregates as outdated, so that the next report rebuilds them. For data changed
+     * without going through the DAOs.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            stale = true;
+            applyPending();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns rebuild and change counters, for the admin page.
+     * 
+     * @return Ordered map of metric name to value
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            stats.put("analytics.rebuilds", rebuilds);
+            stats.put("analytics.changesApplied", changesApplied);
+            stats.put("analytics.builtAt", builtAt != null ? builtAt : "never");
+        } finally {
+            lock.unlock();
+        }
+        stats.put("analytics.pendingChanges", pendingCount.get());
+        return stats;
+    }
+
+    /**
+     * Brings the aggregates up to date: applies the queued changes, then rebuilds or reloads
+     * whatever they left outdated.
+     */
+    private void refresh() {
+        applyPending();
+        if (stale) {
+            rebuildAggregates();
+        }
+        if (productsStale) {
+            reloadProducts();
+        }
+        refreshChangedOrders();
+    }
+
+    /**
+     * Applies the queued changes in order. Changes the last rebuild already saw are skipped;
+     * order item deltas that committed while it ran cannot be told apart from those it saw, so
+     * they make the aggregates stale instead. Every other change is idempotent and is applied.
+     */
+    private void applyPending() {
+        Change change;
+        while ((change = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            if (stale || change.sequence <= rebuildStart) {
+                continue;
+            }
+            if (change.sequence <= rebuildEnd && change.event.affects("OrderItem")) {
+                stale = true;
+                continue;
+            }
+            apply(change.event);
+            changesApplied++;
+        }
+    }
+
+    private void apply(DataChangeEvent event) {
+        if (event instanceof OrderItemChangeEvent) {
+            OrderItemChangeEvent lines = (OrderItemChangeEvent) event;
+            for (OrderItem item : lines.getRemoved()) {
+                applyLine(item.getProductId(), item.getLineTotal().negate(), -1);
+            }
+            for (OrderItem item : lines.getAdded()) {
+                applyLine(item.getProductId(), item.getLineTotal(), 1);
+            }
+        } else if (event instanceof PaymentChangeEvent) {
+            applyPayment((PaymentChangeEvent) event);
+        } else if (event.affects("Order_") && event.getKey() instanceof Long) {
+            changedOrders.add((Long) event.getKey());
+        } else if (event.affects("Product", "Category_")) {
+            productsStale = true;
+        } else {
+            // OrderItem, Payment or Order_ rows that the event does not identify
+            stale = true;
+        }
+    }
+
+    private void applyLine(Long productId, BigDecimal amount, int lines) {
+        if (stale) {
+            return;
+        }
+        ProductState product = products.get(productId);
+        if (product == null) {
+            // Created since the product list was loaded
+            reloadProducts();
+            product = products.get(productId);
+        }
+        String categoryName = product != null ? categoryNames.get(product.categoryId) : null;
+        if (categoryName == null || product.lines + lines < 0) {
+            stale = true;
+            return;
+        }
+        if (product.lines == 0) {
+            neverOrdered.remove(product);
+        }
+        product.revenue = product.revenue.add(amount);
+        product.lines += lines;
+        if (product.lines == 0) {
+            neverOrdered.add(product);
+        }
+        addRevenue(revenueByProductName, productRanking, product.name, amount);
+        addRevenue(revenueByCategoryName, categoryRanking, categoryName, amount);
+    }
+
+    private void addRevenue(Map<String, BigDecimal> revenue, TreeSet<SalesTotal> ranking,
+                            String name, BigDecimal amount) {
+        BigDecimal previous = revenue.remove(name);
+        if (previous != null) {
+            ranking.remove(new SalesTotal(name, previous));
+        }
+        BigDecimal total = previous != null ? previous.add(amount) : amount;
+        // Lines are positive, so a name without lines has revenue 0 and is left out, like the inner joins in Q1 and Q3
+        if (total.signum() > 0) {
+            revenue.put(name, total);
+            ranking.add(new SalesTotal(name, total));
+        } else if (total.signum() < 0) {
+            stale = true;
+        }
+    }
+
+    private void applyPayment(PaymentChangeEvent event) {
+        Long previousOrder = paidPaymentOrders.remove(event.getPaymentId());
+        if (previousOrder != null) {
+            int count = paidPaymentCounts.merge(previousOrder, -1, Integer::sum);
+            if (count <= 0) {
+                paidPaymentCounts.remove(previousOrder);
+                // Unpaid now; its date and total are read on refresh
+                changedOrders.add(previousOrder);
+            }
+        }
+        if (!event.isDeleted() && PAID.equals(event.getPaymentStatus())) {
+            paidPaymentOrders.put(event.getPaymentId(), event.getOrderId());
+            paidPaymentCounts.merge(event.getOrderId(), 1, Integer::sum);
+            removeUnpaid(event.getOrderId());
+        }
+    }
+
+    /**
+     * Re-reads the orders that changed or lost their last paid payment, in one query per 1000.
+     */
+    private void refreshChangedOrders() {
+        if (changedOrders.isEmpty()) {
+            return;
+        }
+        List<Long> unpaid = new ArrayList<>();
+        for (Long orderId : changedOrders) {
+            removeUnpaid(orderId);
+            if (!paidPaymentCounts.containsKey(orderId)) {
+                unpaid.add(orderId);
+            }
+        }
+        changedOrders.clear();
+        if (!unpaid.isEmpty()) {
+            // Orders that no longer exist are not returned and stay removed
+            for (Order order : salesAnalyticsDAO.findOrderSummaries(unpaid)) {
+                unpaidOrders.put(order.getOrderId(), order);
+                unpaidRanking.add(order);
+            }
+        }
+    }
+
+    private void removeUnpaid(Long orderId) {
+        Order order = unpaidOrders.remove(orderId);
+        if (order != null) {
+            unpaidRanking.remove(order);
+        }
+    }
+
+    /**
+     * Loads every aggregate from the database. Changes queued meanwhile are applied afterwards,
+     * and the load is repeated while order item writes overlap it.
+     */
+    private void rebuildAggregates() {
+        long startTime = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            long start = sequence.get();
+            List<ProductSales> sales = salesAnalyticsDAO.findProductSales();
+            List<Category> categories = categoryDAO.findAll();
+            Map<Long, Long> paid = salesAnalyticsDAO.findPaidPayments();
+            List<Order> unpaid = salesAnalyticsDAO.findOrdersWithoutPaidPayment();
+            long end = sequence.get();
+
+            products.clear();
+            for (ProductSales row : sales) {
+                products.put(row.getProductId(), new ProductState(row));
+            }
+            categoryNames.clear();
+            for (Category category : categories) {
+                categoryNames.put(category.getCategoryId(), category.getCategoryName());
+            }
+            rollUp();
+
+            paidPaymentOrders.clear();
+            paidPaymentOrders.putAll(paid);
+            paidPaymentCounts.clear();
+            for (Long orderId : paid.values()) {
+                paidPaymentCounts.merge(orderId, 1, Integer::sum);
+            }
+            unpaidOrders.clear();
+            unpaidRanking.clear();
+            for (Order order : unpaid) {
+                unpaidOrders.put(order.getOrderId(), order);
+                unpaidRanking.add(order);
+            }
+            changedOrders.clear();
+
+            rebuildStart = start;
+            rebuildEnd = end;
+            stale = false;
+            productsStale = false;
+            applyPending();
+            if (!stale) {
+                break;
+            }
+            if (attempt == MAX_REBUILD_ATTEMPTS) {
+                log.warn("Sales analytics rebuild overlapped by order item writes {} times; retrying on next read",
+                         attempt);
+                break;
+            }
+        }
+        rebuilds++;
+        builtAt = new Date();
+        Timer.builder("analytics.rebuild")
+            .description("Time to load the sales analytics aggregates from the database")
+            .register(registry)
+            .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        log.info("Sales analytics rebuilt: {} products, {} paid payments, {} unpaid orders",
+                 products.size(), paidPaymentOrders.size(), unpaidRanking.size());
+    }
+
+    /**
+     * Reloads product names and categories, keeping the revenue of each product, and rolls the
+     * revenue up again.
+     */
+    private void reloadProducts() {
+        List<ProductSales> rows = salesAnalyticsDAO.findProducts();
+        List<Category> categories = categoryDAO.findAll();
+        Map<Long, ProductState> reloaded = new HashMap<>();
+        for (ProductSales row : rows) {
+            ProductState previous = products.get(row.getProductId());
+            ProductState product = new ProductState(row);
+            if (previous != null) {
+                product.revenue = previous.revenue;
+                product.lines = previous.lines;
+            }
+            reloaded.put(product.productId, product);
+        }
+        for (ProductState previous : products.values()) {
+            if (previous.lines > 0 && !reloaded.containsKey(previous.productId)) {
+                // Deleted product that still has lines here: the aggregates missed a change
+                stale = true;
+            }
+        }
+        products.clear();
+        products.putAll(reloaded);
+        categoryNames.clear();
+        for (Category category : categories) {
+            categoryNames.put(category.getCategoryId(), category.getCategoryName());
+        }
+        rollUp();
+        productsStale = false;
+    }
+
+    /**
+     * Recomputes the name and category totals and the never-ordered list from the products.
+     */
+    private void rollUp() {
+        revenueByProductName.clear();
+        productRanking.clear();
+        revenueByCategoryName.clear();
+        categoryRanking.clear();
+        neverOrdered.clear();
+        for (ProductState product : products.values()) {
+            if (product.lines == 0) {
+                neverOrdered.add(product);
+                continue;
+            }
+            revenueByProductName.merge(product.name, product.revenue, BigDecimal::add);
+            String categoryName = categoryNames.get(product.categoryId);
+            if (categoryName != null) {
+                revenueByCategoryName.merge(categoryName, product.revenue, BigDecimal::add);
+            }
+        }
+        revenueByProductName.forEach((name, revenue) -> productRanking.add(new SalesTotal(name, revenue)));
+        revenueByCategoryName.forEach((name, revenue) -> categoryRanking.add(new SalesTotal(name, revenue)));
+    }
+
+    /**
+     * Revenue and line count of one product. Name and category are fixed; a product or
+     * category write replaces the state.
+     */
+    private static final class ProductState {
+        private final Long productId;
+        private final String name;
+        private final Long categoryId;
+        private BigDecimal revenue;
+        private long lines;
+
+        ProductState(ProductSales row) {
+            this.productId = row.getProductId();
+            this.name = row.getProductName();
+            this.categoryId = row.getCategoryId();
+            this.revenue = row.getRevenue();
+            this.lines = row.getLineCount();
+        }
+    }
+
+    /**
+     * A committed write waiting to be applied, numbered in the order it was queued.
+     */
+    private static final class Change {
+        private final long sequence;
+        private final DataChangeEvent event;
+
+        Change(long sequence, DataChangeEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.cps510.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable columnar copy of the order lines, for ad-hoc group-by queries without touching
+ * the database:
+ * - One primitive array per column, with row i of every array describing order line i
+ * - Product, brand, category and employee are dictionary-encoded: each column holds an int code
+ *   into a sorted array of the distinct names, so a filter or group-by compares ints
+ * - The order date is stored as the number of days since the first day in the snapshot, and
+ *   rows are sorted by it, so a date range is a contiguous run of rows found by binary search
+ * - Line totals (item_qty * unit_price) are stored as long cents
+ * About 32 bytes per order line. Built by SalesSnapshotService; scans of row ranges may run
+ * on several threads at once.
+ */
+public final class SalesSnapshot {
+
+    /**
+     * Columns a query can group or filter by.
+     */
+    public enum Dimension {
+        PRODUCT("Product"),
+        BRAND("Brand"),
+        CATEGORY("Category"),
+        EMPLOYEE("Employee"),
+        DAY("Day");
+
+        private final String label;
+
+        Dimension(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Orders for the groups of a query result.
+     */
+    public enum Measure {
+        REVENUE, QUANTITY, LINES, KEY
+    }
+
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+    private static final int DAY = Dimension.DAY.ordinal();
+
+    private final int size;
+    private final int[][] codes;
+    private final String[][] dictionaries;
+    private final int firstDay;
+    private final int[] quantities;
+    private final long[] cents;
+    private final Date loadedAt;
+    private final long loadMillis;
+
+    private SalesSnapshot(Builder builder, long loadMillis) {
+        this.size = builder.size;
+        this.codes = new int[DIMENSIONS.length][];
+        this.dictionaries = new String[DIMENSIONS.length][];
+        for (Dimension dimension : DIMENSIONS) {
+            int d = dimension.ordinal();
+            if (d == DAY) {
+                continue;
+            }
+            // Re-code so that codes follow the sorted names and KEY order is a plain code order
+            String[] names = builder.names.get(d).keySet().toArray(new String[0]);
+            Arrays.sort(names);
+            int[] recode = new int[names.length];
+            for (int code = 0; code < names.length; code++) {
+                recode[builder.names.get(d).get(names[code])] = code;
+            }
+            int[] column = Arrays.copyOf(builder.codes[d], size);
+            for (int i = 0; i < size; i++) {
+                column[i] = recode[column[i]];
+            }
+            codes[d] = column;
+            dictionaries[d] = names;
+        }
+        this.firstDay = size > 0 ? builder.codes[DAY][0] : 0;
+        int[] days = Arrays.copyOf(builder.codes[DAY], size);
+        for (int i = 0; i < size; i++) {
+            days[i] -= firstDay;
+        }
+        codes[DAY] = days;
+        this.quantities = Arrays.copyOf(builder.quantities, size);
+        this.cents = Arrays.copyOf(builder.cents, size);
+        this.loadedAt = new Date();
+        this.loadMillis = loadMillis;
+    }
+
+    /**
+     * @return Number of order lines
+     */
+    public int size() {
+        return size;
+    }
+
+    public Date getLoadedAt() {
+        return loadedAt;
+    }
+
+    public long getLoadMillis() {
+        return loadMillis;
+    }
+
+    /**
+     * @return Approximate heap size of the columns and dictionaries in bytes
+     */
+    public long getBytes() {
+        long bytes = (long) size * (Integer.BYTES * DIMENSIONS.length + Integer.BYTES + Long.BYTES);
+        for (String[] names : dictionaries) {
+            if (names != null) {
+                for (String name : names) {
+                    bytes += 40 + 2L * name.length();
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Distinct values of a dimension, in order.
+     * 
+     * @param dimension The dimension
+     * @return Sorted names, or every day from the first to the last order line for DAY
+     */
+    public String[] values(Dimension dimension) {
+        int cardinality = cardinality(dimension);
+        String[] values = new String[cardinality];
+        for (int code = 0; code < cardinality; code++) {
+            values[code] = label(dimension, code);
+        }
+        return values;
+    }
+
+    /**
+     * Number of distinct codes of a dimension, i.e. the size of a group-by array.
+     */
+    int cardinality(Dimension dimension) {
+        if (dimension == Dimension.DAY) {
+            return size > 0 ? codes[DAY][size - 1] + 1 : 0;
+        }
+        return dictionaries[dimension.ordinal()].length;
+    }
+
+    /**
+     * Name of a code of a dimension (ISO date for DAY).
+     */
+    String label(Dimension dimension, int code) {
+        if (dimension == Dimension.DAY) {
+            return LocalDate.ofEpochDay(firstDay + (long) code).toString();
+        }
+        return dictionaries[dimension.ordinal()][code];
+    }
+
+    /**
+     * Code of a name of a dimension other than DAY.
+     * 
+     * @return The code, or -1 if no order line has that value
+     */
+    int code(Dimension dimension, String value) {
+        int code = Arrays.binarySearch(dictionaries[dimension.ordinal()], value);
+        return code >= 0 ? code : -1;
+    }
+
+    /**
+     * Day code of a date; negative or past the last day for dates outside the snapshot.
+     */
+    int dayCode(LocalDate date) {
+        long code = date.toEpochDay() - firstDay;
+        return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2, code));
+    }
+
+    /**
+     * First row whose day code is at least the given code; rows are sorted by day.
+     */
+    int firstRowOnOrAfter(int dayCode) {
+        int[] days = codes[DAY];
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (days[mid] < dayCode) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Aggregates a range of rows into per-group totals.
+     * 
+     * @param from First row (inclusive)
+     * @param to Last row (exclusive)
+     * @param groupBy Dimension whose codes index the totals
+     * @param filterDimensions Ordinals of the dimensions to filter on
+     * @param filterCodes Code each filtered dimension must have, in the same order
+     * @return Totals for the range
+     */
+    Totals scan(int from, int to, Dimension groupBy, int[] filterDimensions, int[] filterCodes) {
+        Totals totals = new Totals(cardinality(groupBy));
+        int[] keys = codes[groupBy.ordinal()];
+        int[][] filterColumns = new int[filterDimensions.length][];
+        for (int f = 0; f < filterDimensions.length; f++) {
+            filterColumns[f] = codes[filterDimensions[f]];
+        }
+        rows:
+        for (int i = from; i < to; i++) {
+            for (int f = 0; f < filterColumns.length; f++) {
+                if (filterColumns[f][i] != filterCodes[f]) {
+                    continue rows;
+                }
+            }
+            int key = keys[i];
+            totals.cents[key] += cents[i];
+            totals.quantities[key] += quantities[i];
+            totals.lines[key]++;
+        }
+        return totals;
+    }
+
+    /**
+     * Per-group sums of a scan, indexed by group code.
+     */
+    static final class Totals {
+        final long[] cents;
+        final long[] quantities;
+        final long[] lines;
+
+        Totals(int groups) {
+            this.cents = new long[groups];
+            this.quantities = new long[groups];
+            this.lines = new long[groups];
+        }
+
+        void add(Totals other) {
+            for (int g = 0; g < cents.length; g++) {
+                cents[g] += other.cents[g];
+                quantities[g] += other.quantities[g];
+                lines[g] += other.lines[g];
+            }
+        }
+
+        long value(Measure measure, int group) {
+            switch (measure) {
+                case QUANTITY:
+                    return quantities[group];
+                case LINES:
+                    return lines[group];
+                default:
+                    return cents[group];
+            }
+        }
+
+        static BigDecimal money(long cents) {
+            return BigDecimal.valueOf(cents, 2);
+        }
+    }
+
+    /**
+     * Accumulates order lines, which must arrive ordered by day, into growing columns.
+     */
+    static final class Builder {
+        private int size;
+        private final int[][] codes = new int[DIMENSIONS.length][];
+        private final List<Map<String, Integer>> names = new ArrayList<>(DIMENSIONS.length);
+        private int[] quantities;
+        private long[] cents;
+
+        Builder() {
+            int capacity = 1024;
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                codes[d] = new int[capacity];
+                names.add(new HashMap<>());
+            }
+            quantities = new int[capacity];
+            cents = new long[capacity];
+        }
+
+        void add(LocalDate day, String employee, String product, String brand, String category,
+                 int quantity, BigDecimal unitPrice) {
+            if (size == quantities.length) {
+                int capacity = size + (size >> 1);
+                for (int d = 0; d < DIMENSIONS.length; d++) {
+                    codes[d] = Arrays.copyOf(codes[d], capacity);
+                }
+                quantities = Arrays.copyOf(quantities, capacity);
+                cents = Arrays.copyOf(cents, capacity);
+            }
+            codes[Dimension.PRODUCT.ordinal()][size] = encode(Dimension.PRODUCT, product);
+            codes[Dimension.BRAND.ordinal()][size] = encode(Dimension.BRAND, brand);
+            codes[Dimension.CATEGORY.ordinal()][size] = encode(Dimension.CATEGORY, category);
+            codes[Dimension.EMPLOYEE.ordinal()][size] = encode(Dimension.EMPLOYEE, employee);
+            codes[DAY][size] = Math.toIntExact(day.toEpochDay());
+            if (size > 0 && codes[DAY][size] < codes[DAY][size - 1]) {
+                throw new IllegalStateException("Order lines must be loaded in order date order");
+            }
+            quantities[size] = quantity;
+            cents[size] = unitPrice.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() * quantity;
+            size++;
+        }
+
+        private int encode(Dimension dimension, String value) {
+            Map<String, Integer> dictionary = names.get(dimension.ordinal());
+            return dictionary.computeIfAbsent(value != null ? value : "", name -> dictionary.size());
+        }
+
+        SalesSnapshot build(long loadMillis) {
+            return new SalesSnapshot(this, loadMillis);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.cps510.service;
+
+import com.cps510.dao.SalesAnalyticsDAO;
+import com.cps510.model.SalesSlice;
+import com.cps510.service.SalesSnapshot.Dimension;
+import com.cps510.service.SalesSnapshot.Measure;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service answering ad-hoc sales queries (group by product, brand, category, employee or day,
+ * filtered by date range and by any of the other dimensions, top N by a measure) from an
+ * in-memory SalesSnapshot instead of the OLTP tables:
+ * - The snapshot is loaded with one streaming query on first use and reloaded every
+ *   app.snapshot.refresh-ms in the background; queries keep using the previous snapshot while
+ *   the next one loads, and answers are as old as the snapshot (shown with the results)
+ * - A query splits its row range into slices of at least app.snapshot.min-rows-per-task rows
+ *   and scans them in parallel on app.snapshot.parallelism threads (0 = one per core), the last
+ *   slice on the calling thread, then merges the per-slice totals
+ * Records snapshot.load (time to load) and snapshot.query (tagged with the dimension grouped by).
+ */
+@Service
+public class SalesSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesSnapshotService.class);
+
+    @Autowired
+    private SalesAnalyticsDAO salesAnalyticsDAO;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Value("${app.snapshot.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.snapshot.min-rows-per-task:50000}")
+    private int minRowsPerTask;
+
+    private final AtomicReference<SalesSnapshot> current = new AtomicReference<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final AtomicInteger threadNumber = new AtomicInteger();
+    private ExecutorService executor;
+    private int threads;
+
+    @PostConstruct
+    public void start() {
+        threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "sales-snapshot-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reloads the snapshot in the background, unless a load is already running.
+     * The first load happens on first use instead, so the initial delay equals the interval.
+     */
+    @Scheduled(fixedDelayString = "${app.snapshot.refresh-ms:300000}", initialDelayString = "${app.snapshot.refresh-ms:300000}")
+    public void scheduledReload() {
+        if (current.get() != null && loadLock.tryLock()) {
+            try {
+                load();
+            } catch (Exception e) {
+                log.warn("Sales snapshot reload failed; keeping the snapshot loaded at {}: {}",
+                         current.get().getLoadedAt(), e.getMessage());
+            } finally {
+                loadLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Loads a new snapshot now, waiting for a load that is already running.
+     * 
+     * @return Success or error message
+     */
+    public String reload() {
+        loadLock.lock();
+        try {
+            SalesSnapshot snapshot = load();
+            return "Sales snapshot loaded: " + snapshot.size() + " order lines, " +
+                   snapshot.getBytes() / 1024 + " KB, " + snapshot.getLoadMillis() + " ms.";
+        } catch (Exception e) {
+            return "Error loading sales snapshot: " + e.getMessage();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the current snapshot, loading the first one if needed.
+     * 
+     * @return The most recently loaded snapshot
+     */
+    public SalesSnapshot getSnapshot() {
+        SalesSnapshot snapshot = current.get();
+        if (snapshot != null) {
+            return snapshot;
+        }
+        loadLock.lock();
+        try {
+            snapshot = current.get();
+            return snapshot != null ? snapshot : load();
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Groups the order lines in a date range by one dimension and returns the top groups.
+     * 
+     * @param groupBy Dimension to group by
+     * @param filters Value each filtered dimension must have (DAY is ignored; use the date range)
+     * @param from First order date to include, or null for no lower bound
+     * @param to Last order date to include, or null for no upper bound
+     * @param orderBy Measure to sort the groups by, highest first (KEY sorts by name or date, ascending)
+     * @param limit Maximum number of groups
+     * @return The top groups
+     */
+    public List<SalesSlice> query(Dimension groupBy, Map<Dimension, String> filters, LocalDate from, LocalDate to,
+                                  Measure orderBy, int limit) {
+        long start = System.nanoTime();
+        SalesSnapshot snapshot = getSnapshot();
+        int[] filterDimensions = new int[filters.size()];
+        int[] filterCodes = new int[filters.size()];
+        int filterCount = 0;
+        for (Map.Entry<Dimension, String> filter : filters.entrySet()) {
+            if (filter.getKey() == Dimension.DAY) {
+                continue;
+            }
+            int code = snapshot.code(filter.getKey(), filter.getValue());
+            if (code < 0) {
+                return new ArrayList<>();
+            }
+            filterDimensions[filterCount] = filter.getKey().ordinal();
+            filterCodes[filterCount++] = code;
+        }
+        int[] dimensions = Arrays.copyOf(filterDimensions, filterCount);
+        int[] codes = Arrays.copyOf(filterCodes, filterCount);
+        int firstRow = from != null ? snapshot.firstRowOnOrAfter(snapshot.dayCode(from)) : 0;
+        int lastRow = to != null ? snapshot.firstRowOnOrAfter(snapshot.dayCode(to) + 1) : snapshot.size();
+
+        SalesSnapshot.Totals totals = scan(snapshot, firstRow, Math.max(firstRow, lastRow), groupBy, dimensions, codes);
+
+        List<Integer> groups = new ArrayList<>();
+        for (int group = 0; group < totals.lines.length; group++) {
+            if (totals.lines[group] > 0) {
+                groups.add(group);
+            }
+        }
+        if (orderBy != Measure.KEY) {
+            groups.sort(Comparator.comparingLong((Integer group) -> totals.value(orderBy, group)).reversed()
+                        .thenComparing(group -> group));
+        }
+        List<SalesSlice> slices = new ArrayList<>(Math.min(limit, groups.size()));
+        for (int i = 0; i < groups.size() && slices.size() < limit; i++) {
+            int group = groups.get(i);
+            slices.add(new SalesSlice(snapshot.label(groupBy, group), SalesSnapshot.Totals.money(totals.cents[group]),
+                                      totals.quantities[group], totals.lines[group]));
+        }
+        Timer.builder("snapshot.query")
+            .description("Time to answer an ad-hoc sales query from the snapshot")
+            .tag("groupBy", groupBy.name())
+            .register(registry)
+            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return slices;
+    }
+
+    /**
+     * Distinct values of a dimension in the current snapshot, for filter dropdowns.
+     * 
+     * @param dimension The dimension
+     * @return Sorted values
+     */
+    public List<String> getValues(Dimension dimension) {
+        return Arrays.asList(getSnapshot().values(dimension));
+    }
+
+    /**
+     * Returns the size and age of the snapshot, for the admin page.
+     * 
+     * @return Ordered map of metric name to value
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        SalesSnapshot snapshot = current.get();
+        stats.put("snapshot.rows", snapshot != null ? snapshot.size() : 0);
+        stats.put("snapshot.kilobytes", snapshot != null ? snapshot.getBytes() / 1024 : 0);
+        stats.put("snapshot.loadedAt", snapshot != null ? snapshot.getLoadedAt() : "never");
+        stats.put("snapshot.loadMillis", snapshot != null ? snapshot.getLoadMillis() : 0);
+        stats.put("snapshot.threads", threads);
+        return stats;
+    }
+
+    /**
+     * Scans a row range in slices on the pool, the last slice on the calling thread.
+     */
+    private SalesSnapshot.Totals scan(SalesSnapshot snapshot, int firstRow, int lastRow, Dimension groupBy,
+                                      int[] dimensions, int[] codes) {
+        int rows = lastRow - firstRow;
+        int tasks = (int) Math.max(1, Math.min(threads, (long) rows / Math.max(1, minRowsPerTask)));
+        int sliceSize = (rows + tasks - 1) / Math.max(1, tasks);
+        List<Future<SalesSnapshot.Totals>> slices = new ArrayList<>(tasks - 1);
+        for (int t = 0; t < tasks - 1; t++) {
+            int from = firstRow + t * sliceSize;
+            int to = Math.min(lastRow, from + sliceSize);
+            slices.add(executor.submit(() -> snapshot.scan(from, to, groupBy, dimensions, codes)));
+        }
+        SalesSnapshot.Totals totals = snapshot.scan(firstRow + (tasks - 1) * sliceSize, lastRow, groupBy, dimensions, codes);
+        try {
+            for (Future<SalesSnapshot.Totals> slice : slices) {
+                totals.add(slice.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            slices.forEach(slice -> slice.cancel(true));
+            throw new IllegalStateException("Interrupted while scanning the sales snapshot", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sales snapshot scan failed", e.getCause());
+        }
+        return totals;
+    }
+
+    /**
+     * Loads a new snapshot and swaps it in. Caller holds loadLock.
+     */
+    private SalesSnapshot load() {
+        long start = System.nanoTime();
+        SalesSnapshot.Builder builder = new SalesSnapshot.Builder();
+        salesAnalyticsDAO.forEachSalesLine(builder::add);
+        long elapsed = System.nanoTime() - start;
+        SalesSnapshot snapshot = builder.build(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        current.set(snapshot);
+        Timer.builder("snapshot.load")
+            .description("Time to load the sales snapshot from the database")
+            .register(registry)
+            .record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Sales snapshot loaded: {} order lines, {} KB in {} ms",
+                 snapshot.size(), snapshot.getBytes() / 1024, snapshot.getLoadMillis());
+        return snapshot;
+    }
+}
@@ -1,18 +1,33 @@
 package com.cps510.service;
 
+import com.cps510.dao.IdAllocator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service for managing database schema operations:
  * - Dropping tables, views, and sequences
  * - Creating tables, sequences, triggers, and views
+ * - Creating and dropping the secondary index catalog, and reporting index usage
+ * - Creating and dropping the materialized reporting views when app.mview.enabled is set
  * - Populating tables with sample data
  * - Querying table data
+ * Runs against Oracle, or against the embedded H2 database (Oracle mode) of the "embedded"
+ * profile, where triggers and PL/SQL blocks are replaced with equivalent H2 statements.
  */
 @Service
 public class SchemaService {
@@ -20,6 +35,59 @@ public class SchemaService {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private IdAllocator idAllocator;
+
+    @Autowired
+    private MaterializedViewService materializedViewService;
+
+    /**
+     * Number of sequence values Oracle caches in memory (CACHE n); 0 or 1 means NOCACHE.
+     */
+    @Value("${app.schema.sequence-cache:0}")
+    private int sequenceCache;
+
+    @Value("${spring.datasource.driver-class-name}")
+    private String driverClassName;
+
+    /**
+     * ID sequences with the table and key column each one feeds: sequence, table, column.
+     */
+    private static final String[][] ID_SEQUENCES = {
+        {"CUSTOMER_SEQ", "Customer", "customer_id"},
+        {"EMPLOYEE_SEQ", "Employee", "employee_id"},
+        {"PRODUCT_SEQ", "Product", "product_id"},
+        {"ORDER_SEQ", "Order_", "order_id"},
+        {"PAYMENT_SEQ", "Payment", "payment_id"}
+    };
+
+    /**
+     * Secondary indexes beyond the primary keys. Oracle does not index foreign key columns
+     * automatically, so each FK gets an index (leading column) to avoid full scans on child
+     * lookups and table locks on parent deletes. Composite indexes also cover the sort order
+     * or aggregate of the DAO query they serve.
+     */
+    private static final List<IndexDefinition> INDEX_CATALOG = Arrays.asList(
+        new IndexDefinition("IX_OI_PRODUCT", "OrderItem", "product_id",
+                            "FK to Product; parent deletes and product sales lookups"),
+        new IndexDefinition("IX_PAY_ORDER_STATUS", "Payment", "order_id, payment_status, payment_amount",
+                            "FK to Order_; covers PaymentDAO.getTotalPaidAmount without visiting the table"),
+        new IndexDefinition("IX_ORDER_CUST_DATE", "Order_", "customer_id, order_date",
+                            "FK to Customer; OrderDAO.findByCustomer in date order"),
+        new IndexDefinition("IX_ORDER_EMP", "Order_", "employee_id",
+                            "FK to Employee; parent deletes"),
+        new IndexDefinition("IX_ORDER_DATE", "Order_", "order_date, order_id",
+                            "Order keyset pagination and revenue-since-date totals"),
+        new IndexDefinition("IX_ORDER_STATUS", "Order_", "order_status",
+                            "Dashboard count of orders by status"),
+        new IndexDefinition("IX_PROD_CAT_NAME", "Product", "category_id, product_name",
+                            "FK to Category_; ProductDAO.findByCategory in name order"),
+        new IndexDefinition("IX_PROD_NAME", "Product", "product_name, product_id",
+                            "Product keyset pagination"),
+        new IndexDefinition("IX_CUST_NAME", "Customer", "customer_name, customer_id",
+                            "Customer keyset pagination")
+    );
+
     /**
      * Drops all tables, views, and sequences in the correct order.
      * Handles errors gracefully if objects don't exist.
@@ -28,6 +96,15 @@ public class SchemaService {
         try (Connection conn = jdbcTemplate.getDataSource().getConnection();
              Statement stmt = conn.createStatement()) {
             
+            // Materialized views outlive their base tables, so drop them first
+            materializedViewService.drop(stmt);
+            
+            if (!isOracle()) {
+                dropAllTablesEmbedded(stmt);
+                idAllocator.reset();
+                return "All tables, views, and sequences dropped successfully.";
+            }
+            
             // Drop views first
             String dropViewsSQL = 
                 "BEGIN " +
@@ -66,6 +143,7 @@ public class SchemaService {
                 "  drop_seq('PAYMENT_SEQ'); " +
                 "END;";
             stmt.execute(dropSeqsSQL);
+            idAllocator.reset();
             
             return "All tables, views, and sequences dropped successfully.";
         } catch (Exception e) {
@@ -90,30 +168,197 @@ public class SchemaService {
             stmt.execute("CREATE TABLE OrderItem (order_id NUMBER NOT NULL, product_id NUMBER NOT NULL, item_qty NUMBER NOT NULL, unit_price NUMBER(10,2) NOT NULL, CONSTRAINT PK_ORDERITEM PRIMARY KEY (order_id, product_id), CONSTRAINT FK_OI_ORDER FOREIGN KEY (order_id) REFERENCES Order_(order_id), CONSTRAINT FK_OI_PRODUCT FOREIGN KEY (product_id) REFERENCES Product(product_id), CONSTRAINT CK_OI_QTY CHECK (item_qty > 0), CONSTRAINT CK_OI_PRICE CHECK (unit_price > 0))");
             
             // Create sequences
-            stmt.execute("CREATE SEQUENCE CUSTOMER_SEQ START WITH 1 INCREMENT BY 1 NOCACHE");
-            stmt.execute("CREATE SEQUENCE EMPLOYEE_SEQ START WITH 1 INCREMENT BY 1 NOCACHE");
-            stmt.execute("CREATE SEQUENCE PRODUCT_SEQ START WITH 1 INCREMENT BY 1 NOCACHE");
-            stmt.execute("CREATE SEQUENCE ORDER_SEQ START WITH 1 INCREMENT BY 1 NOCACHE");
-            stmt.execute("CREATE SEQUENCE PAYMENT_SEQ START WITH 1 INCREMENT BY 1 NOCACHE");
-            
-            // Create triggers
-            stmt.execute("CREATE OR REPLACE TRIGGER CUSTOMER_BI BEFORE INSERT ON Customer FOR EACH ROW WHEN (NEW.customer_id IS NULL) BEGIN SELECT CUSTOMER_SEQ.NEXTVAL INTO :NEW.customer_id FROM dual; END;");
-            stmt.execute("CREATE OR REPLACE TRIGGER EMPLOYEE_BI BEFORE INSERT ON Employee FOR EACH ROW WHEN (NEW.employee_id IS NULL) BEGIN SELECT EMPLOYEE_SEQ.NEXTVAL INTO :NEW.employee_id FROM dual; END;");
-            stmt.execute("CREATE OR REPLACE TRIGGER PRODUCT_BI BEFORE INSERT ON Product FOR EACH ROW WHEN (NEW.product_id IS NULL) BEGIN SELECT PRODUCT_SEQ.NEXTVAL INTO :NEW.product_id FROM dual; END;");
-            stmt.execute("CREATE OR REPLACE TRIGGER ORDER_BI BEFORE INSERT ON Order_ FOR EACH ROW WHEN (NEW.order_id IS NULL) BEGIN SELECT ORDER_SEQ.NEXTVAL INTO :NEW.order_id FROM dual; END;");
-            stmt.execute("CREATE OR REPLACE TRIGGER PAYMENT_BI BEFORE INSERT ON Payment FOR EACH ROW WHEN (NEW.payment_id IS NULL) BEGIN SELECT PAYMENT_SEQ.NEXTVAL INTO :NEW.payment_id FROM dual; END;");
+            stmt.execute("CREATE SEQUENCE CUSTOMER_SEQ START WITH 1 INCREMENT BY 1 " + sequenceCacheClause());
+            stmt.execute("CREATE SEQUENCE EMPLOYEE_SEQ START WITH 1 INCREMENT BY 1 " + sequenceCacheClause());
+            stmt.execute("CREATE SEQUENCE PRODUCT_SEQ START WITH 1 INCREMENT BY 1 " + sequenceCacheClause());
+            stmt.execute("CREATE SEQUENCE ORDER_SEQ START WITH 1 INCREMENT BY 1 " + sequenceCacheClause());
+            stmt.execute("CREATE SEQUENCE PAYMENT_SEQ START WITH 1 INCREMENT BY 1 " + sequenceCacheClause());
+            
+            // Create triggers (embedded database: sequence-backed column defaults instead)
+            if (isOracle()) {
+                stmt.execute("CREATE OR REPLACE TRIGGER CUSTOMER_BI BEFORE INSERT ON Customer FOR EACH ROW WHEN (NEW.customer_id IS NULL) BEGIN SELECT CUSTOMER_SEQ.NEXTVAL INTO :NEW.customer_id FROM dual; END;");
+                stmt.execute("CREATE OR REPLACE TRIGGER EMPLOYEE_BI BEFORE INSERT ON Employee FOR EACH ROW WHEN (NEW.employee_id IS NULL) BEGIN SELECT EMPLOYEE_SEQ.NEXTVAL INTO :NEW.employee_id FROM dual; END;");
+                stmt.execute("CREATE OR REPLACE TRIGGER PRODUCT_BI BEFORE INSERT ON Product FOR EACH ROW WHEN (NEW.product_id IS NULL) BEGIN SELECT PRODUCT_SEQ.NEXTVAL INTO :NEW.product_id FROM dual; END;");
+                stmt.execute("CREATE OR REPLACE TRIGGER ORDER_BI BEFORE INSERT ON Order_ FOR EACH ROW WHEN (NEW.order_id IS NULL) BEGIN SELECT ORDER_SEQ.NEXTVAL INTO :NEW.order_id FROM dual; END;");
+                stmt.execute("CREATE OR REPLACE TRIGGER PAYMENT_BI BEFORE INSERT ON Payment FOR EACH ROW WHEN (NEW.payment_id IS NULL) BEGIN SELECT PAYMENT_SEQ.NEXTVAL INTO :NEW.payment_id FROM dual; END;");
+            } else {
+                createIdDefaults(stmt);
+            }
             
             // Create views
             stmt.execute("CREATE OR REPLACE VIEW V_ORDERS_SUMMARY AS SELECT o.order_id, o.order_date, o.order_status, o.total_amount, c.customer_name, e.employee_name FROM Order_ o JOIN Customer c ON c.customer_id = o.customer_id JOIN Employee e ON e.employee_id = o.employee_id");
             stmt.execute("CREATE OR REPLACE VIEW V_ORDER_LINE_ITEMS AS SELECT oi.order_id, p.product_id, p.product_name, p.product_brand, p.product_size, p.product_colour, cat.category_name, oi.item_qty, oi.unit_price, (oi.item_qty * oi.unit_price) AS line_total FROM OrderItem oi JOIN Product p ON p.product_id = oi.product_id JOIN Category_ cat ON cat.category_id = p.category_id");
             stmt.execute("CREATE OR REPLACE VIEW V_PAYMENTS AS SELECT p.payment_id, p.order_id, p.payment_method, p.payment_amount, p.payment_status, o.order_date, c.customer_name FROM Payment p JOIN Order_ o ON o.order_id = p.order_id JOIN Customer c ON c.customer_id = o.customer_id");
             
-            return "All tables, sequences, triggers, and views created successfully.";
+            // Create secondary indexes
+            String indexResult = createIndexes(stmt);
+            
+            // Create materialized views (optional schema mode)
+            if (materializedViewService.isEnabled()) {
+                indexResult += materializedViewService.create(stmt);
+            }
+            
+            return "All tables, sequences, triggers, and views created successfully.\n" + indexResult;
         } catch (Exception e) {
             return "Error creating tables: " + e.getMessage();
         }
     }
 
+    /**
+     * Creates the secondary indexes from the index catalog that do not exist yet.
+     * Safe to run repeatedly; existing indexes are left untouched.
+     */
+    public String createIndexes() {
+        try (Connection conn = jdbcTemplate.getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            return createIndexes(stmt);
+        } catch (Exception e) {
+            return "Error creating indexes: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Drops the secondary indexes from the index catalog that exist.
+     * Safe to run repeatedly; missing indexes are skipped.
+     */
+    public String dropIndexes() {
+        try (Connection conn = jdbcTemplate.getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            Set<String> existing = existingIndexNames();
+            int dropped = 0;
+            StringBuilder errors = new StringBuilder();
+            for (IndexDefinition index : INDEX_CATALOG) {
+                if (!existing.contains(index.name)) {
+                    continue;
+                }
+                try {
+                    stmt.execute("DROP INDEX " + index.name);
+                    dropped++;
+                } catch (SQLException e) {
+                    errors.append("Error dropping ").append(index.name).append(": ").append(e.getMessage()).append("\n");
+                }
+            }
+            return "Indexes dropped: " + dropped + " of " + INDEX_CATALOG.size() + ".\n" + errors;
+        } catch (Exception e) {
+            return "Error dropping indexes: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Reports each catalog index with its status, optimizer statistics and whether
+     * Oracle has used it since monitoring started (V$OBJECT_USAGE).
+     * 
+     * @return One ordered map per catalog index, suitable for display
+     */
+    public List<Map<String, Object>> getIndexUsage() {
+        Map<String, Map<String, Object>> dictionary = new LinkedHashMap<>();
+        String names = "'" + String.join("','", catalogIndexNames()) + "'";
+        String sql = "SELECT i.index_name, i.status, i.num_rows, i.distinct_keys, i.leaf_blocks, " +
+                     "i.clustering_factor, i.last_analyzed, u.monitoring, u.used, u.start_monitoring " +
+                     "FROM user_indexes i LEFT JOIN v$object_usage u ON u.index_name = i.index_name " +
+                     "WHERE i.index_name IN (" + names + ")";
+        try {
+            jdbcTemplate.query(sql, rs -> {
+                dictionary.put(rs.getString("index_name"), row(rs.getString("status"), rs.getObject("num_rows"),
+                    rs.getObject("distinct_keys"), rs.getObject("leaf_blocks"), rs.getObject("clustering_factor"),
+                    rs.getDate("last_analyzed"), rs.getString("monitoring"), rs.getString("used"),
+                    rs.getString("start_monitoring")));
+            });
+        } catch (Exception e) {
+            // V$OBJECT_USAGE may not be visible; report which indexes exist without usage
+            try {
+                for (String name : existingIndexNames()) {
+                    dictionary.put(name, row("EXISTS", null, null, null, null, null, null, "unknown", null));
+                }
+            } catch (Exception unavailable) {
+                return catalogReport(dictionary, "UNKNOWN");
+            }
+        }
+        return catalogReport(dictionary, "MISSING");
+    }
+
+    private static List<Map<String, Object>> catalogReport(Map<String, Map<String, Object>> dictionary,
+                                                           String absentStatus) {
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (IndexDefinition index : INDEX_CATALOG) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("index", index.name);
+            entry.put("table", index.table);
+            entry.put("columns", index.columns);
+            entry.put("purpose", index.purpose);
+            Map<String, Object> stats = dictionary.get(index.name);
+            if (stats != null) {
+                entry.putAll(stats);
+            } else {
+                entry.put("status", absentStatus);
+            }
+            report.add(entry);
+        }
+        return report;
+    }
+
+    private String createIndexes(Statement stmt) {
+        Set<String> existing = existingIndexNames();
+        int created = 0;
+        int failed = 0;
+        StringBuilder errors = new StringBuilder();
+        for (IndexDefinition index : INDEX_CATALOG) {
+            if (existing.contains(index.name)) {
+                continue;
+            }
+            try {
+                stmt.execute("CREATE INDEX " + index.name + " ON " + index.table + " (" + index.columns + ")");
+                created++;
+            } catch (SQLException e) {
+                errors.append("Error creating ").append(index.name).append(": ").append(e.getMessage()).append("\n");
+                failed++;
+                continue;
+            }
+            if (!isOracle()) {
+                continue;
+            }
+            try {
+                stmt.execute("ALTER INDEX " + index.name + " MONITORING USAGE");
+            } catch (SQLException e) {
+                // Usage monitoring is informational only
+            }
+        }
+        return "Indexes created: " + created + ", already present: " +
+               (INDEX_CATALOG.size() - created - failed) + ".\n" + errors;
+    }
+
+    private Set<String> existingIndexNames() {
+        String names = "'" + String.join("','", catalogIndexNames()) + "'";
+        String dictionary = isOracle()
+            ? "SELECT index_name FROM user_indexes WHERE index_name IN (" + names + ")"
+            : "SELECT index_name FROM information_schema.indexes WHERE table_schema = SCHEMA() AND index_name IN (" + names + ")";
+        return new HashSet<>(jdbcTemplate.queryForList(dictionary, String.class));
+    }
+
+    private static List<String> catalogIndexNames() {
+        List<String> names = new ArrayList<>();
+        for (IndexDefinition index : INDEX_CATALOG) {
+            names.add(index.name);
+        }
+        return names;
+    }
+
+    private static Map<String, Object> row(String status, Object numRows, Object distinctKeys, Object leafBlocks,
+                                           Object clusteringFactor, Object lastAnalyzed, String monitoring,
+                                           String used, String startMonitoring) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("status", status);
+        row.put("numRows", numRows);
+        row.put("distinctKeys", distinctKeys);
+        row.put("leafBlocks", leafBlocks);
+        row.put("clusteringFactor", clusteringFactor);
+        row.put("lastAnalyzed", lastAnalyzed);
+        row.put("monitoring", monitoring);
+        row.put("used", used);
+        row.put("monitoringSince", startMonitoring);
+        return row;
+    }
+
     /**
      * Populates all tables with sample data.
      */
@@ -157,37 +402,66 @@ public class SchemaService {
             stmt.execute("INSERT INTO OrderItem (order_id, product_id, item_qty, unit_price) VALUES (3, 2, 1, 89.50)");
             
             // Sync sequences
-            String syncSeqsSQL =
-                "DECLARE " +
-                "  PROCEDURE sync_seq(p_seq VARCHAR2, p_tab VARCHAR2, p_col VARCHAR2) IS " +
-                "    v_max NUMBER; v_val NUMBER; v_diff NUMBER; " +
-                "  BEGIN " +
-                "    EXECUTE IMMEDIATE 'SELECT NVL(MAX('||p_col||'),0) FROM '||p_tab INTO v_max; " +
-                "    EXECUTE IMMEDIATE 'SELECT '||p_seq||'.NEXTVAL FROM dual' INTO v_val; " +
-                "    v_diff := v_max + 1 - v_val; " +
-                "    IF v_diff > 0 THEN " +
-                "      EXECUTE IMMEDIATE 'ALTER SEQUENCE '||p_seq||' INCREMENT BY '||v_diff; " +
-                "      EXECUTE IMMEDIATE 'SELECT '||p_seq||'.NEXTVAL FROM dual' INTO v_val; " +
-                "      EXECUTE IMMEDIATE 'ALTER SEQUENCE '||p_seq||' INCREMENT BY 1'; " +
-                "    END IF; " +
-                "  EXCEPTION WHEN OTHERS THEN NULL; " +
-                "  END; " +
-                "BEGIN " +
-                "  sync_seq('CUSTOMER_SEQ','Customer','customer_id'); " +
-                "  sync_seq('EMPLOYEE_SEQ','Employee','employee_id'); " +
-                "  sync_seq('PRODUCT_SEQ', 'Product', 'product_id'); " +
-                "  sync_seq('ORDER_SEQ',   'Order_',  'order_id'); " +
-                "  sync_seq('PAYMENT_SEQ', 'Payment', 'payment_id'); " +
-                "END;";
-            stmt.execute(syncSeqsSQL);
+            syncSequences(stmt);
+            idAllocator.reset();
             
             conn.commit();
+            materializedViewService.refreshAfterLoad();
             return "Sample data inserted successfully.";
         } catch (Exception e) {
             return "Error populating tables: " + e.getMessage();
         }
     }
 
+    /**
+     * Moves each ID sequence past the highest ID in its table, so sequence-generated IDs
+     * continue after rows inserted with explicit IDs (sample data, seeding, imports).
+     */
+    public void syncSequences() throws SQLException {
+        try (Connection conn = jdbcTemplate.getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            syncSequences(stmt);
+        }
+        idAllocator.reset();
+    }
+
+    private void syncSequences(Statement stmt) throws SQLException {
+        if (!isOracle()) {
+            for (String[] sequence : ID_SEQUENCES) {
+                long next;
+                try (ResultSet rs = stmt.executeQuery("SELECT NVL(MAX(" + sequence[2] + "),0) + 1 FROM " + sequence[1])) {
+                    rs.next();
+                    next = rs.getLong(1);
+                }
+                stmt.execute("ALTER SEQUENCE " + sequence[0] + " RESTART WITH " + next);
+            }
+            return;
+        }
+        String syncSeqsSQL =
+            "DECLARE " +
+            "  PROCEDURE sync_seq(p_seq VARCHAR2, p_tab VARCHAR2, p_col VARCHAR2) IS " +
+            "    v_max NUMBER; v_val NUMBER; v_diff NUMBER; " +
+            "  BEGIN " +
+            "    EXECUTE IMMEDIATE 'SELECT NVL(MAX('||p_col||'),0) FROM '||p_tab INTO v_max; " +
+            "    EXECUTE IMMEDIATE 'SELECT '||p_seq||'.NEXTVAL FROM dual' INTO v_val; " +
+            "    v_diff := v_max + 1 - v_val; " +
+            "    IF v_diff > 0 THEN " +
+            "      EXECUTE IMMEDIATE 'ALTER SEQUENCE '||p_seq||' INCREMENT BY '||v_diff; " +
+            "      EXECUTE IMMEDIATE 'SELECT '||p_seq||'.NEXTVAL FROM dual' INTO v_val; " +
+            "      EXECUTE IMMEDIATE 'ALTER SEQUENCE '||p_seq||' INCREMENT BY 1'; " +
+            "    END IF; " +
+            "  EXCEPTION WHEN OTHERS THEN NULL; " +
+            "  END; " +
+            "BEGIN " +
+            "  sync_seq('CUSTOMER_SEQ','Customer','customer_id'); " +
+            "  sync_seq('EMPLOYEE_SEQ','Employee','employee_id'); " +
+            "  sync_seq('PRODUCT_SEQ', 'Product', 'product_id'); " +
+            "  sync_seq('ORDER_SEQ',   'Order_',  'order_id'); " +
+            "  sync_seq('PAYMENT_SEQ', 'Payment', 'payment_id'); " +
+            "END;";
+        stmt.execute(syncSeqsSQL);
+    }
+
     /**
      * Queries and returns summary information about all tables.
      */
@@ -220,5 +494,64 @@ public class SchemaService {
             return "Error querying tables: " + e.getMessage();
         }
     }
-}
 
+    /**
+     * Whether the configured database is Oracle; otherwise it is the embedded H2 database
+     * running in Oracle compatibility mode.
+     */
+    public boolean isOracle() {
+        return driverClassName != null && driverClassName.startsWith("oracle.");
+    }
+
+    /**
+     * Embedded equivalent of the drop PL/SQL blocks; IF EXISTS replaces the swallowed errors.
+     */
+    private static void dropAllTablesEmbedded(Statement stmt) throws SQLException {
+        for (String view : new String[]{"V_ORDERS_SUMMARY", "V_ORDER_LINE_ITEMS", "V_PAYMENTS"}) {
+            stmt.execute("DROP VIEW IF EXISTS " + view + " CASCADE");
+        }
+        for (String table : new String[]{"OrderItem", "Payment", "Order_", "Product", "Employee", "Customer", "Category_"}) {
+            stmt.execute("DROP TABLE IF EXISTS " + table + " CASCADE");
+        }
+        for (String[] sequence : ID_SEQUENCES) {
+            stmt.execute("DROP SEQUENCE IF EXISTS " + sequence[0]);
+        }
+    }
+
+    /**
+     * Embedded equivalent of the *_BI triggers: the key column defaults to the sequence,
+     * and ON NULL applies the default to an explicit NULL as the trigger's WHEN clause does.
+     */
+    private static void createIdDefaults(Statement stmt) throws SQLException {
+        for (String[] sequence : ID_SEQUENCES) {
+            stmt.execute("ALTER TABLE " + sequence[1] + " ALTER COLUMN " + sequence[2] + " SET DEFAULT " + sequence[0] + ".NEXTVAL");
+            stmt.execute("ALTER TABLE " + sequence[1] + " ALTER COLUMN " + sequence[2] + " SET DEFAULT ON NULL");
+        }
+    }
+
+    /**
+     * Returns the CACHE clause for CREATE SEQUENCE based on app.schema.sequence-cache.
+     * Cached sequences avoid a data dictionary update on every NEXTVAL.
+     */
+    private String sequenceCacheClause() {
+        return sequenceCache > 1 ? "CACHE " + sequenceCache : "NOCACHE";
+    }
+
+    /**
+     * A secondary index declared by the schema: name, table, column list or expression,
+     * and the query it exists to serve.
+     */
+    private static final class IndexDefinition {
+        private final String name;
+        private final String table;
+        private final String columns;
+        private final String purpose;
+
+        IndexDefinition(String name, String table, String columns, String purpose) {
+            this.name = name;
+            this.table = table;
+            this.columns = columns;
+            this.purpose = purpose;
+        }
+    }
+}
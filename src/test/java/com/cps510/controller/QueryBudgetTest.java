@@ -0,0 +1,73 @@
+package com.cps510.controller;
+
+import com.cps510.config.QueryBudget;
+import com.cps510.config.QueryBudgetInterceptor;
+import com.cps510.config.QueryCount;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the statements and round trips of annotated routes against their QueryBudget,
+ * on the embedded database with the sample data and app.query-budget.mode=fail.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@SpringBootTest(properties = "app.query-budget.mode=fail")
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class QueryBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void viewOrderItemsStaysWithinBudget() throws Exception {
+        MvcResult result = mockMvc.perform(get("/orders/1/items"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertWithinBudget(result, "OrderController.viewOrderItems");
+    }
+
+    @Test
+    void deletePaymentStaysWithinBudget() throws Exception {
+        MvcResult result = mockMvc.perform(post("/payments/2/delete"))
+            .andExpect(status().is3xxRedirection())
+            .andExpect(flash().attributeExists("successMessage"))
+            .andReturn();
+
+        assertWithinBudget(result, "PaymentController.deletePayment");
+    }
+
+    private static void assertWithinBudget(MvcResult result, String handlerName) {
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        assertEquals(handlerName, handler.getBeanType().getSimpleName() + "." + handler.getMethod().getName());
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        assertNotNull(budget, handlerName + " has no @QueryBudget");
+        QueryCount count = (QueryCount) result.getRequest().getAttribute(QueryBudgetInterceptor.COUNT_ATTRIBUTE);
+        assertNotNull(count, "request was not counted");
+
+        assertTrue(count.getStatements() > 0, handlerName + " issued no statements");
+        assertTrue(count.getStatements() <= budget.statements(),
+                   handlerName + ": " + count + ", budget " + budget.statements() + " statements");
+        if (budget.roundTrips() >= 0) {
+            assertTrue(count.getRoundTrips() <= budget.roundTrips(),
+                       handlerName + ": " + count + ", budget " + budget.roundTrips() + " round trips");
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.cps510.service;
+
+import com.cps510.dao.OrderDAO;
+import com.cps510.model.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a seed which fails after some batches were committed still leaves the
+ * ID sequences past the committed rows, on the embedded database.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class DataSeedServiceTest {
+
+    @Autowired
+    private DataSeedService dataSeedService;
+
+    @Autowired
+    private OrderDAO orderDAO;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void failedSeedKeepsCommittedBatchesUsable() {
+        long maxOrderId = jdbcTemplate.queryForObject("SELECT NVL(MAX(order_id), 0) FROM Order_", Long.class);
+        // Lets the first batch of 1000 orders commit and fails the second
+        jdbcTemplate.execute("ALTER TABLE Order_ ADD CONSTRAINT CK_TEST_SEED_LIMIT CHECK (order_id <= " + (maxOrderId + 1500) + ")");
+        String result;
+        try {
+            result = dataSeedService.seed(2000);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE Order_ DROP CONSTRAINT CK_TEST_SEED_LIMIT");
+        }
+
+        assertTrue(result.startsWith("Error seeding tables: "), result);
+        assertTrue(result.contains("CK_TEST_SEED_LIMIT"), result);
+        assertTrue(result.contains("the first 1000 orders were already committed"), result);
+        assertEquals(maxOrderId + 1000, jdbcTemplate.queryForObject("SELECT MAX(order_id) FROM Order_", Long.class));
+
+        // The sequence was moved past the committed rows, so a new order does not collide with them
+        Long orderId = orderDAO.insert(new Order(null, new Date(), new BigDecimal("1.00"), "Pending", 1L, 1L));
+        assertNotNull(orderId);
+        assertTrue(orderId > maxOrderId + 1000, "new order ID " + orderId);
+    }
+}
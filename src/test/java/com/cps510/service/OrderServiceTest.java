@@ -0,0 +1,86 @@
+package com.cps510.service;
+
+import com.cps510.dao.OrderDAO;
+import com.cps510.dao.OrderItemDAO;
+import com.cps510.model.Order;
+import com.cps510.model.OrderItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the order total follows the order's lines as they are added and removed,
+ * on the embedded database with the sample data.
+ * 
+ * @author CPS510 Team
+ * @version 1.0
+ */
+@SpringBootTest
+@ActiveProfiles("embedded")
+class OrderServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderDAO orderDAO;
+
+    @Autowired
+    private OrderItemDAO orderItemDAO;
+
+    @Test
+    void totalFollowsLinesOfFreshOrder() {
+        // The order form makes the clerk type a positive total before there are any lines
+        Long orderId = orderDAO.insert(new Order(null, new Date(), new BigDecimal("50.00"), "Pending", 1L, 1L));
+
+        orderService.addItem(new OrderItem(orderId, 1L, 1, new BigDecimal("10.00")));
+        assertTotal("10.00", orderId);
+
+        orderService.addItems(orderId, Arrays.asList(new OrderItem(null, 2L, 2, new BigDecimal("5.25")),
+                                                     new OrderItem(null, 2L, 1, new BigDecimal("5.25"))));
+        assertTotal("25.75", orderId);
+
+        assertTrue(orderService.removeItem(orderId, 1L));
+        assertTotal("15.75", orderId);
+        assertEquals(1, orderItemDAO.findByOrder(orderId).size());
+    }
+
+    @Test
+    void removingLastLineChangesNothing() {
+        Long orderId = orderDAO.insert(new Order(null, new Date(), new BigDecimal("1.00"), "Pending", 1L, 1L));
+        orderService.addItem(new OrderItem(orderId, 3L, 2, new BigDecimal("4.00")));
+
+        assertThrows(RuntimeException.class, () -> orderService.removeItem(orderId, 3L));
+
+        assertTotal("8.00", orderId);
+        assertNotNull(orderItemDAO.findByOrderAndProduct(orderId, 3L));
+    }
+
+    @Test
+    void batchWithConflictingPricesChangesNothing() {
+        Long orderId = orderDAO.insert(new Order(null, new Date(), new BigDecimal("1.00"), "Pending", 1L, 1L));
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> orderService.addItems(orderId, Arrays.asList(new OrderItem(null, 4L, 1, new BigDecimal("10.00")),
+                                                                        new OrderItem(null, 4L, 1, new BigDecimal("20.00")))));
+
+        assertTotal("1.00", orderId);
+        assertEquals(Collections.emptyList(), orderItemDAO.findByOrder(orderId));
+    }
+
+    private void assertTotal(String expected, Long orderId) {
+        assertEquals(0, new BigDecimal(expected).compareTo(orderDAO.getOrderTotalAmount(orderId)),
+                     "total of order " + orderId + " is " + orderDAO.getOrderTotalAmount(orderId));
+    }
+}